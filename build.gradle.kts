@@ -3,6 +3,7 @@ plugins {
     id("application")
     id("org.javamodularity.moduleplugin") version "1.8.12"
     id("org.openjfx.javafxplugin") version "0.0.14"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.example"
@@ -45,6 +46,56 @@ application {
     )
 }
 
+tasks.register<JavaExec>("syncSnapshot") {
+    group = "application"
+    description = "Синхронизирует локальный снимок данных SWAPI"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.Main.UtilityClasses.SwapiSync")
+}
+
+tasks.register<JavaExec>("batch") {
+    group = "application"
+    description = "Пакетный поиск без графического интерфейса, результаты в NDJSON"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.Main.BatchMain")
+    standardInput = System.`in`
+}
+
+tasks.register<JavaExec>("serve") {
+    group = "application"
+    description = "Запускает HTTP сервис поиска и получения сущностей"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.Main.ServerMain")
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("swapi.") }.mapKeys { it.key.toString() })
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // Результаты в JSON для сравнения запусков между коммитами
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    // Запуск части бенчмарков: ./gradlew jmh -PjmhIncludes=SearchBenchmark
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+}
+
+tasks.register<JavaExec>("stubServer") {
+    group = "verification"
+    description = "Запускает локальную замену SWAPI с записанными ответами"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.Main.LoadTest.SwapiStubServer")
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Нагрузочный замер SwapiClient: задержки p50/p95/p99 и пропускная способность"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.Main.LoadTest.LoadDriver")
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("swapi.") }.mapKeys { it.key.toString() })
+}
+
 tasks.withType<Javadoc> {
     destinationDir = layout.buildDirectory.dir("docs/javadoc").get().asFile
 
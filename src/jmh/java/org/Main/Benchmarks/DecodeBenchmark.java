@@ -0,0 +1,72 @@
+package org.Main.Benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.Main.HelperClasses.PersonInfoDTO;
+import org.Main.HelperClasses.PlanetInfoDTO;
+import org.Main.HelperClasses.StarshipInfoDTO;
+import org.Main.UtilityClasses.SwapiResponseDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование сохраненных ответов SWAPI в DTO.
+ * Потоковый декодер, которым пользуется {@link org.Main.UtilityClasses.SwapiClient},
+ * сравнивается с разбором через дерево JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecodeBenchmark {
+
+    /** Сохраненный ответ SWAPI */
+    @Param({"people-1", "planets-1", "starships-9"})
+    public String payload;
+
+    /** Общий объект Jackson для разбора через дерево */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Тело ответа */
+    private byte[] body;
+
+    /** Класс DTO ответа */
+    private Class<?> dtoClass;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream inputStream = DecodeBenchmark.class.getClassLoader()
+                .getResourceAsStream("payloads/" + payload + ".json")) {
+            if (inputStream == null) {
+                throw new IOException("Нет сохраненного ответа: " + payload);
+            }
+            body = inputStream.readAllBytes();
+        }
+        dtoClass = switch (payload.substring(0, payload.indexOf('-'))) {
+            case "people" -> PersonInfoDTO.class;
+            case "planets" -> PlanetInfoDTO.class;
+            default -> StarshipInfoDTO.class;
+        };
+    }
+
+    @Benchmark
+    public Object streamingDecode() throws IOException {
+        return SwapiResponseDecoder.decode(new ByteArrayInputStream(body), dtoClass).properties();
+    }
+
+    @Benchmark
+    public Object treeDecode() throws IOException {
+        JsonNode rootNode = objectMapper.readTree(body);
+        return objectMapper.treeToValue(rootNode.path("result").path("properties"), dtoClass);
+    }
+}
@@ -0,0 +1,65 @@
+package org.Main.Benchmarks;
+
+import org.Main.HelperClasses.ItemHelperEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Упорядочивание результатов поиска {@link ItemHelperEntry} по расстоянию:
+ * полная сортировка против выборки нескольких лучших через ограниченную кучу.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RankingBenchmark {
+
+    /** Количество записей */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** Записи с расстояниями в том же диапазоне, что и у реальных запросов */
+    private List<ItemHelperEntry> entries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new ItemHelperEntry(i, "entry-" + i, random.nextInt(40)));
+        }
+    }
+
+    @Benchmark
+    public List<ItemHelperEntry> sortAll() {
+        List<ItemHelperEntry> copy = new ArrayList<>(entries);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<ItemHelperEntry> topFive() {
+        PriorityQueue<ItemHelperEntry> heap = new PriorityQueue<>(6, Collections.reverseOrder());
+        for (ItemHelperEntry entry : entries) {
+            heap.offer(entry);
+            if (heap.size() > 5) {
+                heap.poll();
+            }
+        }
+        List<ItemHelperEntry> top = new ArrayList<>(heap);
+        Collections.sort(top);
+        return top;
+    }
+}
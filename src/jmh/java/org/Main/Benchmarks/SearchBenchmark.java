@@ -0,0 +1,85 @@
+package org.Main.Benchmarks;
+
+import org.Main.HelperClasses.ItemHelperEntry;
+import org.Main.UtilityClasses.CatalogIndex;
+import org.Main.UtilityClasses.SearchTools;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск по каталогам разного размера и запросам разной длины.
+ * Сравнивает полный перебор {@link SearchTools#searchClosestEntries} с выборкой лучших записей,
+ * а для набора запроса по символу — независимые поиски с сеансом {@link SearchTools.Session}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    /** Количество записей каталога */
+    @Param({"100", "10000", "100000"})
+    public int catalogSize;
+
+    /** Длина запроса */
+    @Param({"4", "12", "32"})
+    public int queryLength;
+
+    /** Путь к каталогу */
+    private String catalogPath;
+
+    /** Запрос */
+    private String query;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticCatalogs.useBenchmarkDirectory();
+        catalogPath = SyntheticCatalogs.prepare(catalogSize);
+        query = SyntheticCatalogs.query(queryLength);
+        CatalogIndex.get(catalogPath).getPrefixTrie(); // Разбор файла и построение дерева не входят в замер
+    }
+
+    @Benchmark
+    public List<ItemHelperEntry> closestEntries() throws IOException {
+        return SearchTools.searchClosestEntries(catalogPath, query);
+    }
+
+    @Benchmark
+    public List<ItemHelperEntry> topEntries() throws IOException {
+        return SearchTools.searchTopEntries(catalogPath, query, 5);
+    }
+
+    /**
+     * Набор запроса по одному символу: каждый префикс ищется заново.
+     */
+    @Benchmark
+    public List<ItemHelperEntry> typedTopEntries() throws IOException {
+        List<ItemHelperEntry> entries = null;
+        for (int length = 1; length <= query.length(); length++) {
+            entries = SearchTools.searchTopEntries(catalogPath, query.substring(0, length), 5);
+        }
+        return entries;
+    }
+
+    /**
+     * Набор запроса по одному символу в сеансе, который дополняет строки предыдущего префикса.
+     */
+    @Benchmark
+    public List<ItemHelperEntry> typedSession() throws IOException {
+        SearchTools.Session session = new SearchTools.Session();
+        List<ItemHelperEntry> entries = null;
+        for (int length = 1; length <= query.length(); length++) {
+            entries = session.searchTopEntries(catalogPath, query.substring(0, length), 5);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,101 @@
+package org.Main.Benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.Main.UtilityClasses.CatalogIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Синтетические каталоги для бенчмарков.
+ * Каталог записывается туда, где {@link CatalogIndex} ищет каталоги из локального снимка,
+ * поэтому поиск работает с ним так же, как с обычным каталогом.
+ */
+final class SyntheticCatalogs {
+    /** Слоги для генерации имен, похожих на имена из SWAPI */
+    private static final String[] SYLLABLES = {
+            "an", "ak", "ba", "da", "do", "en", "fe", "ga", "ho", "ja", "ka", "ke", "lu", "le",
+            "ma", "na", "ob", "or", "pa", "qui", "ra", "sa", "sk", "so", "ta", "th", "va", "wa", "yo", "zu"
+    };
+
+    private SyntheticCatalogs() {
+    }
+
+    /**
+     * Создает каталог заданного размера, если его еще нет, и возвращает путь для {@link CatalogIndex#get}.
+     * Генерация детерминирована, одинаковый размер всегда дает одинаковый каталог.
+     *
+     * @param size количество записей
+     * @return путь к каталогу
+     * @throws IOException при ошибке записи
+     */
+    static String prepare(int size) throws IOException {
+        String catalogPath = "Synthetic/Catalog-" + size + ".json";
+        Path file = CatalogIndex.syncedCatalogPath(catalogPath);
+        if (Files.isRegularFile(file)) {
+            return catalogPath;
+        }
+
+        Random random = new Random(42);
+        ObjectMapper objectMapper = new ObjectMapper();
+        ArrayNode catalog = objectMapper.createArrayNode();
+        for (int id = 1; id <= size; id++) {
+            ObjectNode object = catalog.addObject();
+            object.put("id", id);
+            ArrayNode strings = object.putArray("strings");
+            String first = name(random, 2 + random.nextInt(3));
+            String last = name(random, 2 + random.nextInt(3));
+            strings.add(first + " " + last);
+            strings.add(first);
+            if (random.nextBoolean()) {
+                strings.add(last);
+            }
+        }
+
+        Files.createDirectories(file.getParent());
+        objectMapper.writeValue(file.toFile(), catalog);
+        return catalogPath;
+    }
+
+    /**
+     * Создает запрос заданной длины из тех же слогов, что и имена каталога.
+     *
+     * @param length длина запроса
+     * @return запрос в нижнем регистре
+     */
+    static String query(int length) {
+        Random random = new Random(7);
+        StringBuilder builder = new StringBuilder(length + 3);
+        while (builder.length() < length) {
+            builder.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            if (builder.length() < length && random.nextInt(4) == 0) {
+                builder.append(' ');
+            }
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+
+    /**
+     * Направляет каталоги снимка в build/jmh-data, чтобы синтетические данные не смешивались с рабочими.
+     * Вызывается до первого обращения к {@link CatalogIndex}.
+     */
+    static void useBenchmarkDirectory() {
+        if (System.getProperty("swapi.cache.dir") == null) {
+            System.setProperty("swapi.cache.dir", "build/jmh-data");
+        }
+    }
+
+    private static String name(Random random, int syllables) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            builder.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        builder.setCharAt(0, Character.toUpperCase(builder.charAt(0)));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package org.Main.LoadTest;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Параметры командной строки вида --имя значение и флаги вида --имя.
+ */
+final class CommandLine {
+    /** Значения параметров */
+    private final Map<String, String> values = new HashMap<>();
+
+    /** Указанные флаги */
+    private final Set<String> flags = new HashSet<>();
+
+    /**
+     * Разбирает параметры.
+     *
+     * @param args параметры командной строки
+     * @param flagNames имена параметров без значения
+     * @param valueNames имена параметров со значением
+     * @throws IllegalArgumentException при неверных параметрах
+     */
+    CommandLine(String[] args, Set<String> flagNames, Set<String> valueNames) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (flagNames.contains(name)) {
+                flags.add(name);
+            } else if (!valueNames.contains(name)) {
+                throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            } else if (i + 1 < args.length) {
+                values.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Не указано значение для " + args[i]);
+            }
+        }
+    }
+
+    boolean flag(String name) {
+        return flags.contains(name);
+    }
+
+    String string(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int integer(String name, int defaultValue) {
+        String value = values.get(name);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ожидалось целое число для --" + name + ": " + value);
+        }
+    }
+
+    double fraction(String name, double defaultValue) {
+        String value = values.get(name);
+        try {
+            double number = value == null ? defaultValue : Double.parseDouble(value);
+            if (number < 0 || number > 1) {
+                throw new IllegalArgumentException("Значение --" + name + " должно быть от 0 до 1: " + value);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ожидалось число для --" + name + ": " + value);
+        }
+    }
+}
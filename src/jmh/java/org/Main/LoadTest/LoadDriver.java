@@ -0,0 +1,224 @@
+package org.Main.LoadTest;
+
+import org.Main.UtilityClasses.EntityCache;
+import org.Main.UtilityClasses.ResiliencePolicy;
+import org.Main.UtilityClasses.SwapiClient;
+import org.Main.UtilityClasses.SwapiTransport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Нагрузочный замер {@link SwapiClient}: выполняет заданное количество запросов
+ * с ограниченным числом одновременных и выводит задержки p50/p95/p99 и пропускную способность.
+ * Без --base-url запускает встроенный {@link SwapiStubServer} с заданными настройками.
+ */
+public final class LoadDriver {
+    static {
+        // До создания первого логгера: консольный лог уходит в stderr, отчет в stdout
+        if (System.getProperty("swapi.log.target") == null) {
+            System.setProperty("swapi.log.target", "SYSTEM_ERR");
+        }
+    }
+
+    /** Логгер для записи событий замера */
+    private static final Logger logger = LogManager.getLogger(LoadDriver.class);
+
+    /** Подсказка по параметрам запуска */
+    private static final String USAGE = """
+            Использование: LoadDriver [параметры]
+              --base-url <URL>       сервер API, по умолчанию встроенная замена SWAPI
+              --path <путь>          entity, batch или page, по умолчанию entity
+              --requests <N>         количество замеряемых операций, по умолчанию 10000
+              --warmup <N>           количество операций прогрева, по умолчанию 1000
+              --concurrency <N>      одновременных операций, по умолчанию 64
+              --ids <N>              ID выбираются из 1..N, по умолчанию 80
+              --cache                использовать кэш сущностей клиента (по умолчанию каждый запрос идет на сервер)
+            Настройки встроенной замены: --latency-ms, --jitter-ms, --not-found, --server-error,
+              --malformed, --bandwidth-kbps, --records""";
+
+    /** Ресурсы, по которым распределяются запросы */
+    private static final SwapiClient.ResourceType<?>[] RESOURCES = {
+            SwapiClient.ResourceType.PEOPLE, SwapiClient.ResourceType.PLANETS, SwapiClient.ResourceType.STARSHIPS
+    };
+
+    /** Количество ID в одной пакетной операции */
+    private static final int BATCH_SIZE = 10;
+
+    private LoadDriver() {
+    }
+
+    /**
+     * Результат замера.
+     *
+     * @param operations количество операций
+     * @param errors количество операций с ошибкой по типу ошибки
+     * @param elapsedNanos общее время
+     * @param latenciesNanos задержки операций, отсортированные по возрастанию
+     */
+    record Report(int operations, Map<String, Long> errors, long elapsedNanos, long[] latenciesNanos) {
+        double throughput() {
+            return operations * 1e9 / elapsedNanos;
+        }
+
+        double percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, Math.min(latenciesNanos.length - 1, index))] / 1e6;
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    /**
+     * Точка входа нагрузочного замера.
+     *
+     * @param args параметры запуска, см. {@link #USAGE}
+     * @throws Exception если встроенный сервер не удалось запустить
+     */
+    public static void main(String[] args) throws Exception {
+        Set<String> options = new HashSet<>(SwapiStubServer.SETTINGS_OPTIONS);
+        options.addAll(Set.of("base-url", "path", "requests", "warmup", "concurrency", "ids"));
+        CommandLine commandLine;
+        try {
+            commandLine = new CommandLine(args, Set.of("cache"), options);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        SwapiStubServer stub = null;
+        String baseUrl = commandLine.string("base-url", null);
+        if (baseUrl == null) {
+            stub = new SwapiStubServer(new InetSocketAddress("127.0.0.1", 0), SwapiStubServer.settingsFrom(commandLine));
+            stub.start();
+            baseUrl = stub.getBaseUrl();
+        }
+
+        EntityCache cache = commandLine.flag("cache")
+                ? new EntityCache(500, Duration.ofMinutes(30))
+                : new EntityCache(1, Duration.ZERO); // Записи сразу устаревают
+        try (SwapiClient swapiClient = new SwapiClient(cache, null, ResiliencePolicy.fromSystemProperties(),
+                SwapiTransport.shared(), baseUrl)) {
+            String path = commandLine.string("path", "entity");
+            int ids = commandLine.integer("ids", 80);
+            Supplier<CompletableFuture<?>> operation = operation(swapiClient, path, ids);
+            int concurrency = commandLine.integer("concurrency", 64);
+
+            logger.info("Прогрев: {} операций {}", commandLine.integer("warmup", 1000), path);
+            run(operation, commandLine.integer("warmup", 1000), concurrency);
+
+            Report report = run(operation, commandLine.integer("requests", 10000), concurrency);
+            print(path, concurrency, baseUrl, report);
+            logger.info("Кэш: {}, выключатель: {}", cache, swapiClient.getCircuitBreaker().getState());
+        } finally {
+            if (stub != null) {
+                logger.info("Замена SWAPI обработала {} запросов", stub.getRequestCount());
+                stub.close();
+            }
+            SwapiTransport.shared().close();
+        }
+    }
+
+    /**
+     * Создает замеряемую операцию.
+     *
+     * @param swapiClient клиент
+     * @param path entity — одна сущность, batch — пакет из 10 сущностей, page — страница списка
+     * @param ids верхняя граница ID
+     * @return функция, запускающая одну операцию
+     */
+    private static Supplier<CompletableFuture<?>> operation(SwapiClient swapiClient, String path, int ids) {
+        return switch (path) {
+            case "entity" -> () -> swapiClient.fetchAsync(randomResource(), randomId(ids));
+            case "batch" -> () -> {
+                int[] batch = new int[BATCH_SIZE];
+                for (int i = 0; i < batch.length; i++) {
+                    batch[i] = randomId(ids);
+                }
+                return CompletableFuture.allOf(swapiClient.fetchBatchAsync(randomResource(), batch).values()
+                        .toArray(CompletableFuture[]::new));
+            };
+            case "page" -> () -> swapiClient.fetchPageAsync(randomResource(), 1 + ThreadLocalRandom.current().nextInt(3), 10);
+            default -> throw new IllegalArgumentException("Неизвестный путь: " + path);
+        };
+    }
+
+    private static SwapiClient.ResourceType<?> randomResource() {
+        return RESOURCES[ThreadLocalRandom.current().nextInt(RESOURCES.length)];
+    }
+
+    private static int randomId(int ids) {
+        return 1 + ThreadLocalRandom.current().nextInt(ids);
+    }
+
+    /**
+     * Выполняет операции, держа в работе не больше concurrency одновременно.
+     *
+     * @param operation операция
+     * @param count количество операций
+     * @param concurrency одновременных операций
+     * @return результат замера
+     * @throws InterruptedException если поток прерван
+     */
+    static Report run(Supplier<CompletableFuture<?>> operation, int count, int concurrency) throws InterruptedException {
+        long[] latencies = new long[count];
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(concurrency);
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            permits.acquire();
+            int index = i;
+            long operationStart = System.nanoTime();
+            CompletableFuture<?> future;
+            try {
+                future = operation.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, error) -> {
+                latencies[index] = System.nanoTime() - operationStart;
+                if (error != null) {
+                    errors.computeIfAbsent(SwapiClient.unwrap(error).getClass().getSimpleName(), key -> new LongAdder())
+                            .increment();
+                }
+                permits.release();
+            });
+        }
+        permits.acquire(concurrency); // Ожидание последних операций
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((type, counter) -> errorCounts.put(type, counter.sum()));
+        Arrays.sort(latencies);
+        return new Report(count, errorCounts, elapsedNanos, latencies);
+    }
+
+    private static void print(String path, int concurrency, String baseUrl, Report report) {
+        System.out.printf("Путь: %s, одновременных: %d, сервер: %s%n", path, concurrency, baseUrl);
+        System.out.printf("Операций: %d, ошибок: %d %s%n", report.operations(), report.errorCount(),
+                report.errors().isEmpty() ? "" : report.errors());
+        System.out.printf("Время: %.2f с, пропускная способность: %.1f операций/с%n",
+                report.elapsedNanos() / 1e9, report.throughput());
+        System.out.printf("Задержка, мс: p50=%.2f p95=%.2f p99=%.2f max=%.2f%n",
+                report.percentileMillis(0.50), report.percentileMillis(0.95),
+                report.percentileMillis(0.99), report.percentileMillis(1.0));
+    }
+}
@@ -0,0 +1,394 @@
+package org.Main.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Локальная замена SWAPI для тестов и нагрузочных замеров клиента.
+ * Отдает записанные ответы swapi.tech из ресурсов payloads/, а для остальных ID строит ответы
+ * по тому же образцу. Задержка, доля ошибок (404, 5xx, неверное поле message или обрезанный JSON)
+ * и пропускная способность канала настраиваются.
+ * <ul>
+ *     <li>GET /api/{people|planets|starships}/{id}</li>
+ *     <li>GET /api/{people|planets|starships}?page=&amp;limit=&amp;expanded=true</li>
+ * </ul>
+ */
+public class SwapiStubServer implements AutoCloseable {
+    /** Логгер для записи событий сервера */
+    private static final Logger logger = LogManager.getLogger(SwapiStubServer.class);
+
+    /** Записанные ответы: ресурс и ID образца */
+    private static final Map<String, String> RECORDED = Map.of(
+            "people", "people-1",
+            "planets", "planets-1",
+            "starships", "starships-9"
+    );
+
+    /** Параметры командной строки для настроек сервера */
+    static final Set<String> SETTINGS_OPTIONS = Set.of(
+            "latency-ms", "jitter-ms", "not-found", "server-error", "malformed", "bandwidth-kbps", "records");
+
+    /** Размер порции при ограничении пропускной способности */
+    private static final int CHUNK_SIZE = 1024;
+
+    /** Объект Jackson для построения ответов */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Настройки поведения сервера.
+     *
+     * @param latency задержка перед ответом
+     * @param jitter максимальная случайная добавка к задержке
+     * @param notFoundRate доля ответов 404
+     * @param serverErrorRate доля ответов 500 и 503
+     * @param malformedRate доля ответов 200 с ошибкой в поле message или обрезанным JSON
+     * @param bytesPerSecond пропускная способность канала, 0 без ограничения
+     * @param recordsPerResource количество сущностей каждого ресурса
+     */
+    public record Settings(Duration latency, Duration jitter, double notFoundRate, double serverErrorRate,
+                           double malformedRate, long bytesPerSecond, int recordsPerResource) {
+        /**
+         * Возвращает настройки без задержек и ошибок.
+         *
+         * @return настройки по умолчанию
+         */
+        public static Settings defaults() {
+            return new Settings(Duration.ZERO, Duration.ZERO, 0, 0, 0, 0, 100);
+        }
+    }
+
+    /** Настройки */
+    private final Settings settings;
+
+    /** Образцы ответов по ресурсу */
+    private final Map<String, JsonNode> templates = new HashMap<>();
+
+    /** Готовые тела ответов по конечной точке */
+    private final Map<String, byte[]> bodies = new ConcurrentHashMap<>();
+
+    /** HTTP сервер */
+    private final HttpServer server;
+
+    /** Исполнитель обработчиков, по виртуальному потоку на запрос */
+    private final ExecutorService executor;
+
+    /** Количество обработанных запросов */
+    private final AtomicLong requestCount = new AtomicLong();
+
+    /**
+     * Создает сервер. Сервер запускается методом {@link #start()}.
+     *
+     * @param address адрес и порт, порт 0 выбирается автоматически
+     * @param settings настройки поведения
+     * @throws IOException если не удалось занять порт или прочитать записанные ответы
+     */
+    public SwapiStubServer(InetSocketAddress address, Settings settings) throws IOException {
+        this.settings = settings;
+        for (Map.Entry<String, String> entry : RECORDED.entrySet()) {
+            String resource = "payloads/" + entry.getValue() + ".json";
+            try (InputStream inputStream = SwapiStubServer.class.getClassLoader().getResourceAsStream(resource)) {
+                if (inputStream == null) {
+                    throw new IOException("Нет записанного ответа: " + resource);
+                }
+                byte[] body = inputStream.readAllBytes();
+                String id = entry.getValue().substring(entry.getValue().indexOf('-') + 1);
+                bodies.put(entry.getKey() + "/" + id, body);
+                templates.put(entry.getKey(), objectMapper.readTree(body));
+            }
+        }
+
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    /**
+     * Запускает сервер.
+     */
+    public void start() {
+        server.start();
+        logger.info("Замена SWAPI запущена на {}: {}", getBaseUrl(), settings);
+    }
+
+    /**
+     * Возвращает базовый URL API для {@link org.Main.UtilityClasses.SwapiClient}.
+     *
+     * @return URL вида http://127.0.0.1:порт/api/
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/api/";
+    }
+
+    /**
+     * Возвращает количество обработанных запросов.
+     *
+     * @return количество запросов
+     */
+    public long getRequestCount() { return requestCount.get(); }
+
+    /**
+     * Останавливает сервер.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Обрабатывает запрос: задержка, случайная ошибка либо ответ с данными.
+     *
+     * @param exchange HTTP обмен
+     * @throws IOException при ошибке записи ответа
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        String[] parts = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        String resource = parts[0];
+
+        sleep(settings.latency().toNanos() + randomNanos(settings.jitter().toNanos()));
+
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (!templates.containsKey(resource) || parts.length > 2) {
+            send(exchange, 404, message("Not found"));
+        } else if (roll < settings.notFoundRate()) {
+            send(exchange, 404, message("Not found"));
+        } else if ((roll -= settings.notFoundRate()) < settings.serverErrorRate()) {
+            send(exchange, ThreadLocalRandom.current().nextBoolean() ? 500 : 503,
+                    "Internal Server Error".getBytes(StandardCharsets.UTF_8));
+        } else if ((roll - settings.serverErrorRate()) < settings.malformedRate()) {
+            send(exchange, 200, malformed(resource));
+        } else if (parts.length == 1) {
+            send(exchange, 200, page(resource, parseQuery(exchange.getRequestURI().getRawQuery())));
+        } else {
+            int id;
+            try {
+                id = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                send(exchange, 404, message("Not found"));
+                return;
+            }
+            if (id < 1 || id > settings.recordsPerResource()) {
+                send(exchange, 404, message("Not found"));
+            } else {
+                send(exchange, 200, bodies.computeIfAbsent(resource + "/" + id, key -> entity(resource, id)));
+            }
+        }
+    }
+
+    /**
+     * Строит ответ с сущностью по образцу ресурса.
+     *
+     * @param resource ресурс
+     * @param id ID сущности
+     * @return тело ответа
+     */
+    private byte[] entity(String resource, int id) {
+        ObjectNode root = templates.get(resource).deepCopy();
+        ObjectNode result = (ObjectNode) root.get("result");
+        result.put("uid", String.valueOf(id));
+        customize((ObjectNode) result.get("properties"), resource, id);
+        return toBytes(root);
+    }
+
+    /**
+     * Строит страницу списка ресурса.
+     *
+     * @param resource ресурс
+     * @param query параметры запроса
+     * @return тело ответа
+     */
+    private byte[] page(String resource, Map<String, String> query) {
+        int page = Math.max(1, parseInt(query.get("page"), 1));
+        int limit = Math.max(1, parseInt(query.get("limit"), 10));
+        boolean expanded = Boolean.parseBoolean(query.get("expanded"));
+        int total = settings.recordsPerResource();
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("message", "ok");
+        root.put("total_records", total);
+        root.put("total_pages", (total + limit - 1) / limit);
+        ArrayNode results = root.putArray("results");
+        JsonNode template = templates.get(resource).path("result");
+        for (int id = (page - 1) * limit + 1; id <= Math.min(total, page * limit); id++) {
+            ObjectNode item = results.addObject();
+            item.put("uid", String.valueOf(id));
+            if (expanded) {
+                ObjectNode properties = template.get("properties").deepCopy();
+                customize(properties, resource, id);
+                item.set("properties", properties);
+                item.put("description", template.path("description").asText());
+            } else {
+                item.put("name", nameFor(template.path("properties").path("name").asText(), id));
+                item.put("url", "https://www.swapi.tech/api/" + resource + "/" + id);
+            }
+        }
+        return toBytes(root);
+    }
+
+    private static void customize(ObjectNode properties, String resource, int id) {
+        properties.put("name", nameFor(properties.path("name").asText(), id));
+        properties.put("url", "https://www.swapi.tech/api/" + resource + "/" + id);
+    }
+
+    private static String nameFor(String templateName, int id) {
+        return id == 1 ? templateName : templateName + " " + id;
+    }
+
+    /**
+     * Строит неверный ответ: ошибка в поле message либо обрезанный JSON.
+     *
+     * @param resource ресурс
+     * @return тело ответа
+     */
+    private byte[] malformed(String resource) {
+        if (ThreadLocalRandom.current().nextBoolean()) {
+            return message("Error: internal data error");
+        }
+        byte[] body = toBytes(templates.get(resource));
+        return Arrays.copyOf(body, body.length / 2);
+    }
+
+    private static byte[] message(String message) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("message", message);
+        return toBytes(root);
+    }
+
+    private static byte[] toBytes(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsBytes(node);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Отправляет ответ, при ограничении пропускной способности порциями с паузами.
+     *
+     * @param exchange HTTP обмен
+     * @param status HTTP статус
+     * @param body тело ответа
+     * @throws IOException при ошибке записи
+     */
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            if (settings.bytesPerSecond() <= 0) {
+                outputStream.write(body);
+                return;
+            }
+            for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+                int length = Math.min(CHUNK_SIZE, body.length - offset);
+                sleep(length * 1_000_000_000L / settings.bytesPerSecond());
+                outputStream.write(body, offset, length);
+                outputStream.flush();
+            }
+        }
+    }
+
+    private static long randomNanos(long bound) {
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    query.put(pair.substring(0, separator), pair.substring(separator + 1));
+                }
+            }
+        }
+        return query;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Создает настройки из параметров командной строки.
+     *
+     * @param commandLine параметры
+     * @return настройки
+     */
+    static Settings settingsFrom(CommandLine commandLine) {
+        return new Settings(
+                Duration.ofMillis(commandLine.integer("latency-ms", 0)),
+                Duration.ofMillis(commandLine.integer("jitter-ms", 0)),
+                commandLine.fraction("not-found", 0),
+                commandLine.fraction("server-error", 0),
+                commandLine.fraction("malformed", 0),
+                commandLine.integer("bandwidth-kbps", 0) * 1024L,
+                commandLine.integer("records", 100));
+    }
+
+    /**
+     * Запускает сервер из командной строки и работает до завершения процесса.
+     * Параметры: --port, --latency-ms, --jitter-ms, --not-found, --server-error, --malformed,
+     * --bandwidth-kbps, --records.
+     *
+     * @param args параметры запуска
+     * @throws Exception если сервер не удалось запустить
+     */
+    public static void main(String[] args) throws Exception {
+        Set<String> options = new HashSet<>(SETTINGS_OPTIONS);
+        options.add("port");
+        CommandLine commandLine = new CommandLine(args, Set.of(), options);
+
+        SwapiStubServer server = new SwapiStubServer(
+                new InetSocketAddress("127.0.0.1", commandLine.integer("port", 8090)), settingsFrom(commandLine));
+        server.start();
+        System.out.println("Базовый URL: " + server.getBaseUrl());
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            stopped.countDown();
+        }, "swapi-stub-shutdown"));
+        stopped.await();
+    }
+}
@@ -0,0 +1,395 @@
+package org.Main;
+import org.Main.HelperClasses.*;
+import org.Main.UtilityClasses.*;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Пакетный режим без графического интерфейса.
+ * Читает запросы из файла или stdin (по одному на строку либо JSON объекты по строкам),
+ * ищет их во всех каталогах параллельно, при необходимости загружает данные лучших
+ * совпадений из SWAPI и пишет результаты в stdout в формате NDJSON в порядке входных строк.
+ * Лог пишется в stderr, чтобы не смешиваться с результатами.
+ */
+public final class BatchMain {
+    static {
+        // До создания первого логгера: консольный лог уходит в stderr
+        if (System.getProperty("swapi.log.target") == null) {
+            System.setProperty("swapi.log.target", "SYSTEM_ERR");
+        }
+    }
+
+    /** Логгер для записи событий пакетного режима */
+    private static final Logger logger = LogManager.getLogger(BatchMain.class);
+
+    /** Объект Jackson для чтения запросов и записи результатов */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Подсказка по параметрам запуска */
+    private static final String USAGE = """
+            Использование: BatchMain [параметры]
+              --input <файл>         файл с запросами, по умолчанию stdin
+              --category <список>    people,planets,starships через запятую, по умолчанию все
+              --limit <N>            количество результатов в каждой категории, по умолчанию 5
+              --fetch                загрузить из SWAPI данные лучшего совпадения в каждой категории
+              --concurrency <N>      количество потоков поиска, по умолчанию число процессоров
+            Строка запроса: текст либо JSON объект с полями query (или name), id и category.""";
+
+    /**
+     * Параметры запуска.
+     *
+     * @param input файл с запросами, null для stdin
+     * @param categories категории поиска
+     * @param limit количество результатов в каждой категории
+     * @param fetch загружать ли данные лучших совпадений
+     * @param concurrency количество потоков поиска
+     */
+    private record Options(Path input, List<SearchCategory> categories, int limit, boolean fetch, int concurrency) {}
+
+    /**
+     * Разобранная строка запроса.
+     *
+     * @param lineNumber номер строки во входных данных
+     * @param id идентификатор запроса из JSON, либо null
+     * @param query текст запроса
+     * @param categories категории поиска
+     */
+    private record Query(int lineNumber, JsonNode id, String query, List<SearchCategory> categories) {}
+
+    private BatchMain() {
+    }
+
+    /**
+     * Точка входа пакетного режима.
+     *
+     * @param args параметры запуска, см. {@link #USAGE}
+     */
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        FlightEvents.startRecordingIfEnabled();
+        boolean success;
+        try (SwapiClient swapiClient = options.fetch() ? new SwapiClient() : null;
+             Reader reader = options.input() != null
+                     ? Files.newBufferedReader(options.input(), StandardCharsets.UTF_8)
+                     : new InputStreamReader(System.in, StandardCharsets.UTF_8);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            CatalogIndex.preloadAll();
+            run(options, swapiClient, new BufferedReader(reader), writer);
+            success = true;
+        } catch (IOException e) {
+            logger.error("Ошибка пакетной обработки: {}", e.getMessage());
+            success = false;
+        } finally {
+            if (options.fetch()) {
+                SwapiTransport.shared().close();
+            }
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Разбирает параметры командной строки.
+     *
+     * @param args параметры
+     * @return настройки запуска
+     * @throws IllegalArgumentException при неверных параметрах
+     */
+    private static Options parseArgs(String[] args) {
+        Path input = null;
+        List<SearchCategory> categories = List.of(SearchCategory.values());
+        int limit = 5;
+        boolean fetch = false;
+        int concurrency = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--input" -> input = Path.of(value(args, ++i));
+                case "--category" -> categories = parseCategories(value(args, ++i));
+                case "--limit" -> limit = positive(args, ++i);
+                case "--fetch" -> fetch = true;
+                case "--concurrency" -> concurrency = positive(args, ++i);
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+        }
+        return new Options(input, categories, limit, fetch, concurrency);
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Не указано значение для " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static int positive(String[] args, int index) {
+        String value = value(args, index);
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Сообщение ниже
+        }
+        throw new IllegalArgumentException("Ожидалось положительное число для " + args[index - 1] + ": " + value);
+    }
+
+    private static List<SearchCategory> parseCategories(String value) {
+        List<SearchCategory> categories = new ArrayList<>();
+        for (String key : value.split(",")) {
+            if (!key.isBlank()) {
+                categories.add(SearchCategory.of(key));
+            }
+        }
+        if (categories.isEmpty()) {
+            throw new IllegalArgumentException("Не указаны категории");
+        }
+        return categories;
+    }
+
+    /**
+     * Обрабатывает все строки входных данных.
+     * Одновременно в работе не больше concurrency * 4 строк, результаты пишутся в порядке входных строк.
+     *
+     * @param options настройки запуска
+     * @param swapiClient клиент SWAPI, либо null если загрузка данных не нужна
+     * @param reader входные данные
+     * @param writer выходные данные
+     * @throws IOException при ошибке чтения или записи
+     */
+    private static void run(Options options, SwapiClient swapiClient, BufferedReader reader, Writer writer) throws IOException {
+        int window = options.concurrency() * 4;
+        Deque<CompletableFuture<String>> pending = new ArrayDeque<>(window);
+        AtomicInteger failed = new AtomicInteger();
+        int processed = 0;
+        long startNanos = System.nanoTime();
+
+        // Поиск отрезков каталога выполняется в том же пуле, поэтому concurrency ограничивает весь поиск
+        ForkJoinPool searchPool = new ForkJoinPool(options.concurrency());
+        SearchEngine searchEngine = new SearchEngine(searchPool);
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                int number = lineNumber;
+                String text = line;
+                pending.add(CompletableFuture
+                        .supplyAsync(() -> parseQuery(number, text, options.categories()), searchPool)
+                        .thenApplyAsync(query -> search(searchEngine, query, options.limit()), searchPool)
+                        .thenCompose(result -> swapiClient != null ? fetchDetails(swapiClient, result) : CompletableFuture.completedFuture(result))
+                        .thenApply(BatchMain::toJson)
+                        .exceptionally(error -> {
+                            failed.incrementAndGet();
+                            return errorJson(number, error);
+                        }));
+                processed++;
+
+                if (pending.size() >= window) {
+                    writeLine(writer, pending.poll().join());
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeLine(writer, pending.poll().join());
+            }
+            writer.flush();
+        } finally {
+            searchPool.shutdownNow();
+        }
+
+        logger.info("Обработано запросов: {}, с ошибками: {}, за {} мс",
+                processed, failed.get(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private static void writeLine(Writer writer, String json) throws IOException {
+        writer.write(json);
+        writer.write('\n');
+    }
+
+    /**
+     * Разбирает строку запроса: JSON объект либо простой текст.
+     *
+     * @param lineNumber номер строки
+     * @param line строка
+     * @param defaultCategories категории из параметров запуска
+     * @return запрос
+     */
+    private static Query parseQuery(int lineNumber, String line, List<SearchCategory> defaultCategories) {
+        String trimmed = line.trim();
+        if (!trimmed.startsWith("{")) {
+            return new Query(lineNumber, null, trimmed, defaultCategories);
+        }
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(trimmed);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Неверный JSON: " + e.getOriginalMessage());
+        }
+        JsonNode text = node.hasNonNull("query") ? node.get("query") : node.get("name");
+        if (text == null || !text.isTextual() || text.textValue().isBlank()) {
+            throw new IllegalArgumentException("Нет поля query или name");
+        }
+        List<SearchCategory> categories = node.hasNonNull("category")
+                ? parseCategories(node.get("category").asText())
+                : defaultCategories;
+        return new Query(lineNumber, node.get("id"), text.textValue().trim(), categories);
+    }
+
+    /**
+     * Результат обработки запроса.
+     *
+     * @param query запрос
+     * @param matches найденные записи по категориям
+     * @param details данные лучших совпадений по категориям
+     * @param errors ошибки загрузки данных по категориям
+     */
+    private record BatchResult(Query query, Map<SearchCategory, List<ItemHelperEntry>> matches,
+                               Map<SearchCategory, Object> details, Map<SearchCategory, String> errors) {}
+
+    /**
+     * Ищет запрос в каталогах.
+     *
+     * @param searchEngine поиск в пуле пакетного режима
+     * @param query запрос
+     * @param limit количество результатов в каждой категории
+     * @return результат без данных SWAPI
+     */
+    private static BatchResult search(SearchEngine searchEngine, Query query, int limit) {
+        Map<SearchCategory, List<ItemHelperEntry>> matches;
+        try {
+            matches = searchEngine.searchByCategory(query.query(), query.categories(), limit);
+        } catch (IOException e) {
+            throw new IllegalStateException("Каталог недоступен: " + e.getMessage(), e);
+        }
+        return new BatchResult(query, matches, new EnumMap<>(SearchCategory.class), new EnumMap<>(SearchCategory.class));
+    }
+
+    /**
+     * Загружает данные лучшего совпадения в каждой категории.
+     * Ошибка загрузки одной категории не мешает остальным.
+     *
+     * @param swapiClient клиент SWAPI
+     * @param result результат поиска
+     * @return future с результатом, дополненным данными и ошибками загрузки
+     */
+    private static CompletableFuture<BatchResult> fetchDetails(SwapiClient swapiClient, BatchResult result) {
+        List<CompletableFuture<Void>> fetches = new ArrayList<>();
+        for (Map.Entry<SearchCategory, List<ItemHelperEntry>> entry : result.matches().entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            SearchCategory category = entry.getKey();
+            int id = entry.getValue().get(0).getId();
+            fetches.add(swapiClient.fetchAsync(category.getType(), id).handle((dto, error) -> {
+                synchronized (result) {
+                    if (error != null) {
+                        result.errors().put(category, SwapiClient.unwrap(error).getMessage());
+                    } else {
+                        result.details().put(category, dto);
+                    }
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)).thenApply(ignored -> result);
+    }
+
+    /**
+     * Формирует строку NDJSON с результатом.
+     *
+     * @param result результат обработки запроса
+     * @return JSON без переводов строк
+     */
+    private static String toJson(BatchResult result) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("line", result.query().lineNumber());
+        if (result.query().id() != null) {
+            root.set("id", result.query().id());
+        }
+        root.put("query", result.query().query());
+
+        ObjectNode matches = root.putObject("results");
+        for (Map.Entry<SearchCategory, List<ItemHelperEntry>> entry : result.matches().entrySet()) {
+            ArrayNode array = matches.putArray(entry.getKey().getKey());
+            for (ItemHelperEntry item : entry.getValue()) {
+                array.addObject()
+                        .put("id", item.getId())
+                        .put("name", item.getName())
+                        .put("distance", item.getNameDistance());
+            }
+        }
+        synchronized (result) {
+            if (!result.details().isEmpty()) {
+                ObjectNode details = root.putObject("details");
+                result.details().forEach((category, dto) -> details.set(category.getKey(), objectMapper.valueToTree(dto)));
+            }
+            if (!result.errors().isEmpty()) {
+                ObjectNode errors = root.putObject("errors");
+                result.errors().forEach((category, message) -> errors.put(category.getKey(), message));
+            }
+        }
+        return root.toString();
+    }
+
+    /**
+     * Формирует строку NDJSON для запроса, который не удалось обработать.
+     *
+     * @param lineNumber номер строки
+     * @param error ошибка
+     * @return JSON без переводов строк
+     */
+    private static String errorJson(int lineNumber, Throwable error) {
+        SwapiClient.SwapiException exception = SwapiClient.unwrap(error);
+        // Ошибки разбора строки и поиска не относятся к SWAPI, для них выводится исходное сообщение
+        String message = exception.getCause() instanceof IllegalArgumentException
+                || exception.getCause() instanceof IllegalStateException
+                ? exception.getCause().getMessage() : exception.getMessage();
+        logger.warn("Строка {} не обработана: {}", lineNumber, message);
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("line", lineNumber);
+        root.put("error", message);
+        return root.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package org.Main.HelperClasses;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/** DTO с названием связанного ресурса (фильма, вида, транспорта) из базы данных */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ResourceNameDTO(
+        String name,
+        String title
+) {
+    /**
+     * Возвращает название для отображения: у фильмов это title, у остальных ресурсов name.
+     *
+     * @return название ресурса либо null
+     */
+    public String displayName() {
+        return name != null ? name : title;
+    }
+}
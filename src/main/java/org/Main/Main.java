@@ -3,6 +3,7 @@ import org.Main.HelperClasses.*;
 import org.Main.UtilityClasses.*;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.Scene;
@@ -13,7 +14,13 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,6 +33,9 @@ public class Main extends Application {
     /** Логгер для записи событий приложения */
     private static final Logger logger = LogManager.getLogger(Main.class);
 
+    /** Максимальное количество результатов поиска в каждой категории */
+    private static final int SEARCH_RESULTS_LIMIT = 5;
+
     /** Список для хранения результатов поиска людей */
     public ObservableList<ItemHelperEntry> people;
     /** Список для хранения результатов поиска планет */
@@ -42,6 +52,59 @@ public class Main extends Application {
     /** Кнопки управления */
     private Button openSelectedButton, showAllButton;
 
+    /** Клиент SWAPI, общий для всех открытий, вместе с его кэшем и HTTP транспортом */
+    private final SwapiClient swapiClient = new SwapiClient();
+
+    /** Разрешитель ссылок на связанные ресурсы, не более 8 одновременных запросов */
+    private final LinkResolver linkResolver = new LinkResolver(swapiClient, 8);
+
+    /** Окно просмотра выбранных сущностей, создается при первом открытии */
+    private ItemDisplayWindow itemDisplayWindow;
+
+    /** Номер последнего показа списков, изменяется только в JavaFX потоке */
+    private long listsGeneration;
+
+    /** Сеанс поиска по префиксным деревьям каталогов, используется только потоком поиска */
+    private final SearchTools.Session searchSession = new SearchTools.Session();
+
+    /** Поиск по мере ввода, пауза в наборе задается свойством swapi.search.debounceMs */
+    private final DebouncedSearch<SearchResults> incrementalSearch = new DebouncedSearch<>(
+            this::searchForItems,
+            this::showSearchResults,
+            this::showSearchError,
+            Duration.ofMillis(Long.getLong("swapi.search.debounceMs", 150)));
+
+    /**
+     * Результаты поиска по всем категориям.
+     *
+     * @param people найденные персонажи
+     * @param planets найденные планеты
+     * @param starships найденные корабли
+     */
+    private record SearchResults(List<ItemHelperEntry> people, List<ItemHelperEntry> planets,
+                                 List<ItemHelperEntry> starships) {
+    }
+
+    /**
+     * Запускает запись JFR, если она включена, загружает каталоги поиска
+     * и заранее подключается к SWAPI до показа окна.
+     * Выполняется в потоке запуска, а не в JavaFX потоке.
+     * Подключение отключается свойством swapi.prewarm=false.
+     */
+    @Override
+    public void init() {
+        FlightEvents.startRecordingIfEnabled();
+        if (Boolean.parseBoolean(System.getProperty("swapi.prewarm", "true"))) {
+            swapiClient.prewarm();
+        }
+        try {
+            CatalogIndex.preloadAll();
+        } catch (IOException e) {
+            // Каталог будет повторно загружен при первом поиске
+            logger.error("Ошибка предварительной загрузки каталогов: {}", e.getMessage());
+        }
+    }
+
     /**
      * Основной метод запуска JavaFX приложения.
      * Инициализирует интерфейс и настраивает обработчики событий.
@@ -78,20 +141,11 @@ public class Main extends Application {
         starshipsListView.setPrefHeight(300);
         starshipsListView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
-        // Настройка поля поиска
+        // Настройка поля поиска: поиск по мере ввода, Enter запускает его без ожидания паузы
         inputSearchField = new TextField();
         inputSearchField.setPromptText("Введите запрос для поиска");
-        inputSearchField.setOnAction(e -> {
-            try {
-                searchForItems();
-            } catch (IOException ex) {
-                logger.error("Ошибка при поиске: {}", ex.getMessage());
-                JavaFXWindowsUtility.showErrorAlert("Ошибка поиска", "Не удалось выполнить поиск: " + ex.getMessage());
-            } catch (Exception ex) {
-                logger.error("Неожиданная ошибка при поиске: {}", ex.getMessage());
-                JavaFXWindowsUtility.showErrorAlert("Ошибка поиска", "Произошла неожиданная ошибка");
-            }
-        });
+        inputSearchField.textProperty().addListener((observable, oldText, newText) -> onSearchInput(newText, false));
+        inputSearchField.setOnAction(e -> onSearchInput(inputSearchField.getText(), true));
 
         // Кнопка открытия выбранных элементов
         openSelectedButton = new Button("Открыть выбранное");
@@ -99,19 +153,7 @@ public class Main extends Application {
 
         // Кнопка показа всех элементов
         showAllButton = new Button("Показать все записи");
-        showAllButton.setOnAction(e -> {
-            try {
-                JavaFXWindowsUtility.showAll("DataQueries/PeopleQueries.json", people);
-                JavaFXWindowsUtility.showAll("DataQueries/PlanetQueries.json", planets);
-                JavaFXWindowsUtility.showAll("DataQueries/StarshipQueries.json", starships);
-            } catch (IOException ex) {
-                logger.error("Ошибка при загрузке всех элементов: {}", ex.getMessage());
-                JavaFXWindowsUtility.showErrorAlert("Ошибка загрузки", "Не удалось загрузить элементы: " + ex.getMessage());
-            } catch (Exception ex) {
-                logger.error("Неожиданная ошибка: {}", ex.getMessage());
-                JavaFXWindowsUtility.showErrorAlert("Ошибка загрузки", "Произошла неожиданная ошибка");
-            }
-        });
+        showAllButton.setOnAction(e -> showAllEntries());
 
         // Создание макета интерфейса
         HBox inputBox = new HBox(10, inputSearchField);
@@ -142,52 +184,140 @@ public class Main extends Application {
 
 
     /**
-     * Выполняет поиск по всем категориям.
-     * Очищает старые результаты и показывает новые.
+     * Передает измененный запрос в фоновый поиск.
+     * Пустой запрос отменяет текущий поиск и сразу очищает результаты.
      *
-     * @throws IOException если не удалось прочитать JSON файлы
+     * @param text текст поля поиска
+     * @param immediately запустить поиск без ожидания паузы в наборе
      */
-    private void searchForItems() throws IOException {
-        people.clear();
-        planets.clear();
-        starships.clear();
+    private void onSearchInput(String text, boolean immediately) {
+        String searchInput = text.trim();
+        if (searchInput.isEmpty()) {
+            incrementalSearch.cancel();
+            showSearchResults(new SearchResults(List.of(), List.of(), List.of()));
+        } else if (immediately) {
+            incrementalSearch.submitNow(searchInput);
+        } else {
+            incrementalSearch.submit(searchInput);
+        }
+    }
 
-        String searchInput = inputSearchField.getText().trim().toLowerCase();
+    /**
+     * Выполняет поиск по всем категориям. Вызывается в фоновом потоке поиска.
+     * Запрос, продолжающий предыдущий, переиспользует вычисления сеанса поиска.
+     * Между категориями проверяет прерывание, чтобы устаревший запрос не сканировал оставшиеся каталоги.
+     *
+     * @param searchInput поисковый запрос без пробелов по краям, к ключу сравнения его приводит {@link MatchKeys}
+     * @return результаты по всем категориям
+     * @throws IOException если не удалось прочитать JSON файлы
+     * @throws InterruptedException если поиск отменен новым запросом
+     */
+    private SearchResults searchForItems(String searchInput) throws IOException, InterruptedException {
         logger.info("Поиск элементов по запросу: {}", searchInput);
 
-        if (searchInput.isEmpty()) {
-            return; // Пустой запрос
-        }
+        // Поиск персонажей
+        List<ItemHelperEntry> foundPeople = searchSession.searchTopEntries(CatalogIndex.PEOPLE_CATALOG, searchInput, SEARCH_RESULTS_LIMIT);
+        checkInterrupted();
 
-        // Поиск персонажей (максимум 5 результатов)
-        List<ItemHelperEntry> closestPeopleEntries = SearchTools.searchClosestEntries("DataQueries/PeopleQueries.json", searchInput);
-        if (closestPeopleEntries.size() > 5) {
-            closestPeopleEntries.subList(5, closestPeopleEntries.size()).clear();
-        }
-        people.addAll(closestPeopleEntries);
+        // Поиск планет
+        List<ItemHelperEntry> foundPlanets = searchSession.searchTopEntries(CatalogIndex.PLANETS_CATALOG, searchInput, SEARCH_RESULTS_LIMIT);
+        checkInterrupted();
+
+        // Поиск кораблей
+        List<ItemHelperEntry> foundStarships = searchSession.searchTopEntries(CatalogIndex.STARSHIPS_CATALOG, searchInput, SEARCH_RESULTS_LIMIT);
+        return new SearchResults(foundPeople, foundPlanets, foundStarships);
+    }
 
-        // Поиск планет (максимум 5 результатов)
-        List<ItemHelperEntry> closestPlanetsEntries = SearchTools.searchClosestEntries("DataQueries/PlanetQueries.json", searchInput);
-        if (closestPlanetsEntries.size() > 5) {
-            closestPlanetsEntries.subList(5, closestPlanetsEntries.size()).clear();
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
         }
-        planets.addAll(closestPlanetsEntries);
+    }
 
-        // Поиск кораблей (максимум 5 результатов)
-        List<ItemHelperEntry> closestStarshipsEntries = SearchTools.searchClosestEntries("DataQueries/StarshipQueries.json", searchInput);
-        if (closestStarshipsEntries.size() > 5) {
-            closestStarshipsEntries.subList(5, closestStarshipsEntries.size()).clear();
+    /**
+     * Заменяет содержимое списков результатами поиска. Вызывается в JavaFX потоке.
+     *
+     * @param results результаты поиска
+     */
+    private void showSearchResults(SearchResults results) {
+        listsGeneration++; // Полные списки, которые еще загружаются, не должны заменить результат
+        peopleListView.setItems(people);
+        planetsListView.setItems(planets);
+        starshipsListView.setItems(starships);
+        people.setAll(results.people());
+        planets.setAll(results.planets());
+        starships.setAll(results.starships());
+    }
+
+    /**
+     * Показывает все записи каталогов. Каталоги загружаются в фоновом потоке,
+     * а ListView получают списки, записи которых создаются только для видимых строк.
+     */
+    private void showAllEntries() {
+        incrementalSearch.cancel(); // Результат поиска не должен заменить полный список
+        long current = ++listsGeneration;
+        CompletableFuture<CatalogListModel> allPeople = JavaFXWindowsUtility.loadAllAsync(CatalogIndex.PEOPLE_CATALOG);
+        CompletableFuture<CatalogListModel> allPlanets = JavaFXWindowsUtility.loadAllAsync(CatalogIndex.PLANETS_CATALOG);
+        CompletableFuture<CatalogListModel> allStarships = JavaFXWindowsUtility.loadAllAsync(CatalogIndex.STARSHIPS_CATALOG);
+
+        CompletableFuture.allOf(allPeople, allPlanets, allStarships).whenComplete((ignored, error) ->
+                Platform.runLater(() -> {
+                    if (current != listsGeneration) {
+                        return; // После нажатия кнопки пришел новый поиск
+                    }
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        if (cause instanceof IOException) {
+                            logger.error("Ошибка при загрузке всех элементов: {}", cause.getMessage());
+                            JavaFXWindowsUtility.showErrorAlert("Ошибка загрузки", "Не удалось загрузить элементы: " + cause.getMessage());
+                        } else {
+                            logger.error("Неожиданная ошибка: {}", cause.getMessage());
+                            JavaFXWindowsUtility.showErrorAlert("Ошибка загрузки", "Произошла неожиданная ошибка");
+                        }
+                        return;
+                    }
+                    peopleListView.setItems(allPeople.join());
+                    planetsListView.setItems(allPlanets.join());
+                    starshipsListView.setItems(allStarships.join());
+                }));
+    }
+
+    /**
+     * Показывает ошибку поиска. Вызывается в JavaFX потоке.
+     *
+     * @param e ошибка поиска
+     */
+    private void showSearchError(Exception e) {
+        if (e instanceof IOException) {
+            logger.error("Ошибка при поиске: {}", e.getMessage());
+            JavaFXWindowsUtility.showErrorAlert("Ошибка поиска", "Не удалось выполнить поиск: " + e.getMessage());
+        } else {
+            logger.error("Неожиданная ошибка при поиске: {}", e.getMessage());
+            JavaFXWindowsUtility.showErrorAlert("Ошибка поиска", "Произошла неожиданная ошибка");
         }
-        starships.addAll(closestStarshipsEntries);
+    }
+
+    /**
+     * Записывает статистику кэша, останавливает фоновый поиск, закрывает хранилище и HTTP транспорт
+     * при закрытии приложения.
+     */
+    @Override
+    public void stop() {
+        logger.info("Завершение SW API Client, {}", swapiClient.getEntityCache());
+        logger.info("Метрики:\n{}", Metrics.summary());
+        incrementalSearch.close();
+        swapiClient.close();
+        SwapiTransport.shared().close();
     }
 
     /**
      * Открывает детальную информацию о выбранных элементах.
-     * Загружает данные из SWAPI и отображает в отдельных окнах.
+     * Окно просмотра сразу показывает вкладку с индикатором загрузки для каждой выбранной сущности.
+     * Все сущности загружаются из SWAPI параллельно вне JavaFX потока, и каждая вкладка заполняется,
+     * как только загружены ее сущность и названия связанных ресурсов.
      */
     private void openSelected() {
-        SwapiClient swAPI = new SwapiClient();
-
         // Получение выбранных элементов
         ObservableList<ItemHelperEntry> selectedPeople = peopleListView.getSelectionModel().getSelectedItems();
         int[] peopleIdArray = selectedPeople.stream().mapToInt(ItemHelperEntry::getId).toArray();
@@ -198,45 +328,74 @@ public class Main extends Application {
         ObservableList<ItemHelperEntry> selectedStarships = starshipsListView.getSelectionModel().getSelectedItems();
         int[] starshipsIdArray = selectedStarships.stream().mapToInt(ItemHelperEntry::getId).toArray();
 
-        try {
-            // Открытие информации о персонажах
-            for (int id : peopleIdArray) {
-                try {
-                    PersonInfoDTO personInfo = swAPI.getPerson(id);
-                    logger.info("Открыт персонаж с id: {}", id);
-                    ItemDisplayWindow.showPersonWindow(personInfo);
-                } catch (SwapiClient.SwapiException e) {
-                    logger.error("Ошибка загрузки персонажа ID {}: {}", id, e.getMessage());
-                    JavaFXWindowsUtility.showErrorAlert("Ошибка загрузки персонажа ID: " + id, e.getMessage());
-                }
-            }
+        if (peopleIdArray.length + planetsIdArray.length + starshipsIdArray.length == 0) {
+            return; // Ничего не выбрано
+        }
+
+        if (itemDisplayWindow == null) {
+            itemDisplayWindow = new ItemDisplayWindow();
+        }
+
+        // Открытие информации о персонажах
+        swapiClient.getPeople(peopleIdArray).forEach((id, future) -> fillWhenLoaded(
+                itemDisplayWindow.addPlaceholder("Персонаж ID " + id), "персонажа", id, future,
+                LinkResolver::collectLinks, ItemDisplayWindow.EntityTab::showPerson));
 
-            // Открытие информации о планетах
-            for (int id : planetsIdArray) {
-                try {
-                    PlanetInfoDTO planetInfo = swAPI.getPlanet(id);
-                    logger.info("Открыта планета с id: {}", id);
-                    ItemDisplayWindow.showPlanetWindow(planetInfo);
-                } catch (SwapiClient.SwapiException e) {
-                    logger.error("Ошибка загрузки планеты ID {}: {}", id, e.getMessage());
-                    JavaFXWindowsUtility.showErrorAlert("Ошибка загрузки планеты ID: " + id, e.getMessage());
-                }
+        // Открытие информации о планетах
+        swapiClient.getPlanets(planetsIdArray).forEach((id, future) -> fillWhenLoaded(
+                itemDisplayWindow.addPlaceholder("Планета ID " + id), "планеты", id, future,
+                LinkResolver::collectLinks, ItemDisplayWindow.EntityTab::showPlanet));
+
+        // Открытие информации о кораблях
+        swapiClient.getStarships(starshipsIdArray).forEach((id, future) -> fillWhenLoaded(
+                itemDisplayWindow.addPlaceholder("Корабль ID " + id), "корабля", id, future,
+                LinkResolver::collectLinks, ItemDisplayWindow.EntityTab::showStarship));
+
+        itemDisplayWindow.show();
+    }
+
+    /**
+     * Заполняет вкладку сущности сразу после загрузки ее данных, со ссылками вместо названий.
+     * Когда названия связанных ресурсов получены, вкладка заполняется повторно,
+     * поэтому вкладка не ждет ссылок других сущностей в общей очереди {@link LinkResolver}.
+     *
+     * @param tab вкладка с индикатором загрузки
+     * @param description описание сущности для сообщений, например "персонажа"
+     * @param id ID сущности
+     * @param future загрузка сущности
+     * @param linksOf функция, собирающая ссылки сущности
+     * @param show функция заполнения вкладки
+     * @param <T> тип DTO
+     */
+    private <T> void fillWhenLoaded(ItemDisplayWindow.EntityTab tab, String description, int id,
+                                    CompletableFuture<T> future, Function<T, Set<String>> linksOf,
+                                    TabFiller<T> show) {
+        future.whenComplete((dto, error) -> {
+            if (error != null) {
+                SwapiClient.SwapiException e = SwapiClient.unwrap(error);
+                logger.error("Ошибка загрузки {} ID {}: {}", description, id, e.getMessage());
+                Platform.runLater(() -> tab.showError(e.getMessage()));
+                return;
             }
 
-            // Открытие информации о кораблях
-            for (int id : starshipsIdArray) {
-                try {
-                    StarshipInfoDTO shipInfo = swAPI.getStarship(id);
-                    logger.info("Открыт корабль с id: {}", id);
-                    ItemDisplayWindow.showStarshipWindow(shipInfo);
-                } catch (SwapiClient.SwapiException e) {
-                    logger.error("Ошибка загрузки корабля ID {}: {}", id, e.getMessage());
-                    JavaFXWindowsUtility.showErrorAlert("Ошибка загрузки корабля ID: " + id, e.getMessage());
-                }
+            logger.info("Загружены данные {} ID {}", description, id);
+            Platform.runLater(() -> show.fill(tab, dto, Map.of()));
+            Set<String> links = linksOf.apply(dto);
+            if (!links.isEmpty()) {
+                // Повторное заполнение встает в очередь FX потока после первого
+                linkResolver.resolve(links).thenAccept(linkNames -> Platform.runLater(() -> show.fill(tab, dto, linkNames)));
             }
-        } catch (Exception e) {
-            logger.error("Неожиданная ошибка в openSelected: {}", e.getMessage());
-        }
+        });
+    }
+
+    /**
+     * Функция заполнения вкладки данными сущности.
+     *
+     * @param <T> тип DTO
+     */
+    @FunctionalInterface
+    private interface TabFiller<T> {
+        void fill(ItemDisplayWindow.EntityTab tab, T dto, Map<String, String> linkNames);
     }
 
     /**
@@ -0,0 +1,66 @@
+package org.Main;
+import org.Main.UtilityClasses.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Запуск HTTP сервиса поиска и получения сущностей без графического интерфейса.
+ * Адрес задается свойствами swapi.server.host (по умолчанию 127.0.0.1) и swapi.server.port (по умолчанию 8080).
+ */
+public final class ServerMain {
+    /** Логгер для записи событий запуска */
+    private static final Logger logger = LogManager.getLogger(ServerMain.class);
+
+    private ServerMain() {
+    }
+
+    /**
+     * Запускает сервис и работает до завершения процесса.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        String host = System.getProperty("swapi.server.host", "127.0.0.1");
+        int port = Integer.getInteger("swapi.server.port", 8080);
+        FlightEvents.startRecordingIfEnabled();
+
+        SwapiClient swapiClient = new SwapiClient();
+        SwapiHttpService service;
+        try {
+            CatalogIndex.preloadAll();
+            service = new SwapiHttpService(swapiClient, new InetSocketAddress(host, port));
+        } catch (IOException e) {
+            logger.error("Не удалось запустить HTTP сервис на {}:{}: {}", host, port, e.getMessage());
+            swapiClient.close();
+            SwapiTransport.shared().close();
+            System.exit(1);
+            return;
+        }
+
+        if (Boolean.parseBoolean(System.getProperty("swapi.prewarm", "true"))) {
+            swapiClient.prewarm();
+        }
+        service.start();
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            service.close();
+            logger.info("Статистика кэша: {}", swapiClient.getEntityCache());
+            logger.info("Метрики:\n{}", Metrics.summary());
+            swapiClient.close();
+            SwapiTransport.shared().close();
+            stopped.countDown();
+        }, "swapi-server-shutdown"));
+
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.Main.UtilityClasses;
+
+import info.debatty.java.stringsimilarity.Levenshtein;
+import org.Main.HelperClasses.ItemHelperEntry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * BK-дерево над нормализованными вариантами имен каталога.
+ * Позволяет находить записи в пределах расстояния Левенштейна и k ближайших записей,
+ * отсекая ветви дерева по неравенству треугольника вместо полного перебора.
+ */
+public class BKTree {
+
+    /**
+     * Узел дерева: уникальный вариант имени и записи каталога, которым он принадлежит.
+     */
+    private static class Node {
+        /** Нормализованный вариант имени */
+        private final String variant;
+
+        /** Номера записей каталога с этим вариантом имени */
+        private int[] entryIndexes = new int[1];
+
+        /** Количество заполненных элементов в entryIndexes */
+        private int entryCount;
+
+        /** Потомки по расстоянию до этого узла */
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        private Node(String variant) {
+            this.variant = variant;
+        }
+
+        private void addEntry(int entryIndex) {
+            if (entryCount > 0 && entryIndexes[entryCount - 1] == entryIndex) {
+                return; // Повтор варианта внутри одной записи
+            }
+            if (entryCount == entryIndexes.length) {
+                entryIndexes = Arrays.copyOf(entryIndexes, entryCount * 2);
+            }
+            entryIndexes[entryCount++] = entryIndex;
+        }
+    }
+
+    /** Каталог, по которому построено дерево */
+    private final CatalogIndex catalog;
+
+    /** Метрика для построения и обхода дерева */
+    private final Levenshtein lev = new Levenshtein();
+
+    /** Корень дерева, null для каталога без имен */
+    private Node root;
+
+    /**
+     * Строит дерево по всем вариантам имен каталога.
+     *
+     * @param catalog загруженный каталог
+     */
+    public BKTree(CatalogIndex catalog) {
+        this.catalog = catalog;
+        for (int i = 0; i < catalog.size(); i++) {
+            for (int v = 0; v < catalog.getVariantCount(i); v++) {
+                insert(catalog.getVariant(i, v), i);
+            }
+        }
+    }
+
+    /**
+     * Добавляет вариант имени в дерево.
+     *
+     * @param variant нормализованный вариант имени
+     * @param entryIndex номер записи каталога
+     */
+    private void insert(String variant, int entryIndex) {
+        if (root == null) {
+            root = new Node(variant);
+            root.addEntry(entryIndex);
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(node.variant, variant);
+            if (distance == 0) {
+                node.addEntry(entryIndex);
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                child = new Node(variant);
+                child.addEntry(entryIndex);
+                node.children.put(distance, child);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Находит все записи, у которых хотя бы один вариант имени
+     * находится не дальше заданного расстояния от запроса.
+     *
+     * @param query нормализованный поисковый запрос
+     * @param maxDistance максимальное расстояние Левенштейна
+     * @return записи, отсортированные по расстоянию
+     */
+    public List<ItemHelperEntry> findWithinDistance(String query, int maxDistance) {
+        Map<Integer, Integer> bestDistances = new HashMap<>();
+        if (root == null || maxDistance < 0) {
+            return new ArrayList<>();
+        }
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int distance = distance(node.variant, query);
+            if (distance <= maxDistance) {
+                for (int i = 0; i < node.entryCount; i++) {
+                    bestDistances.merge(node.entryIndexes[i], distance, Math::min);
+                }
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                int edge = child.getKey();
+                if (edge >= distance - maxDistance && edge <= distance + maxDistance) {
+                    stack.push(child.getValue());
+                }
+            }
+        }
+        return toSortedEntries(bestDistances);
+    }
+
+    /**
+     * Находит k записей с наименьшим расстоянием до запроса.
+     * Радиус поиска сужается по мере нахождения кандидатов.
+     *
+     * @param query нормализованный поисковый запрос
+     * @param k количество записей
+     * @return не более k записей, отсортированных по расстоянию
+     */
+    public List<ItemHelperEntry> findNearest(String query, int k) {
+        Map<Integer, Integer> bestDistances = new HashMap<>();
+        if (root == null || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Максимальная куча текущих k лучших записей: {расстояние, номер записи}
+        PriorityQueue<int[]> topK = new PriorityQueue<>(
+                (a, b) -> a[0] != b[0] ? Integer.compare(b[0], a[0]) : Integer.compare(b[1], a[1]));
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int distance = distance(node.variant, query);
+
+            for (int i = 0; i < node.entryCount; i++) {
+                int entryIndex = node.entryIndexes[i];
+                Integer previous = bestDistances.get(entryIndex);
+                if (previous != null && previous <= distance) {
+                    continue;
+                }
+                if (topK.size() == k && !isBetter(distance, entryIndex, topK.peek())) {
+                    continue;
+                }
+                if (previous != null) {
+                    topK.removeIf(candidate -> candidate[1] == entryIndex);
+                }
+                bestDistances.put(entryIndex, distance);
+                topK.add(new int[]{distance, entryIndex});
+                if (topK.size() > k) {
+                    int[] evicted = topK.poll();
+                    bestDistances.remove(evicted[1]);
+                }
+            }
+
+            int radius = topK.size() < k ? Integer.MAX_VALUE : topK.peek()[0];
+            List<Map.Entry<Integer, Node>> reachable = new ArrayList<>();
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                int edge = child.getKey();
+                if (radius == Integer.MAX_VALUE || Math.abs(edge - distance) <= radius) {
+                    reachable.add(child);
+                }
+            }
+            // Ближайшие по ребру потомки обходятся первыми, чтобы радиус быстрее сужался
+            reachable.sort((a, b) -> Integer.compare(Math.abs(b.getKey() - distance), Math.abs(a.getKey() - distance)));
+            for (Map.Entry<Integer, Node> child : reachable) {
+                stack.push(child.getValue());
+            }
+        }
+
+        Map<Integer, Integer> nearest = new HashMap<>();
+        for (int[] candidate : topK) {
+            nearest.put(candidate[1], candidate[0]);
+        }
+        return toSortedEntries(nearest);
+    }
+
+    /**
+     * Проверяет, лучше ли кандидат текущей худшей записи в куче.
+     *
+     * @param distance расстояние кандидата
+     * @param entryIndex номер записи кандидата
+     * @param worst худшая запись в куче
+     * @return true если кандидат должен занять место худшей записи
+     */
+    private static boolean isBetter(int distance, int entryIndex, int[] worst) {
+        return distance < worst[0] || (distance == worst[0] && entryIndex < worst[1]);
+    }
+
+    /**
+     * Преобразует найденные расстояния в отсортированный список записей.
+     * При равном расстоянии сохраняется порядок записей в каталоге.
+     *
+     * @param bestDistances лучшие расстояния по номеру записи
+     * @return отсортированный список записей
+     */
+    private List<ItemHelperEntry> toSortedEntries(Map<Integer, Integer> bestDistances) {
+        List<Map.Entry<Integer, Integer>> found = new ArrayList<>(bestDistances.entrySet());
+        found.sort(Map.Entry.<Integer, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+
+        List<ItemHelperEntry> entries = new ArrayList<>(found.size());
+        for (Map.Entry<Integer, Integer> entry : found) {
+            entries.add(catalog.toEntry(entry.getKey(), entry.getValue()));
+        }
+        return entries;
+    }
+
+    private int distance(String a, String b) {
+        return (int) lev.distance(a, b);
+    }
+}
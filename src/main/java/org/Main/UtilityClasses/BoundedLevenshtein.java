@@ -0,0 +1,92 @@
+package org.Main.UtilityClasses;
+
+/**
+ * Расстояние Левенштейна с ограничением сверху.
+ * Вычисляет только полосу матрицы шириной 2 * limit + 1 вокруг диагонали
+ * и прекращает работу, как только расстояние гарантированно превысит ограничение.
+ */
+public final class BoundedLevenshtein {
+
+    private BoundedLevenshtein() {
+    }
+
+    /**
+     * Вычисляет расстояние Левенштейна, если оно не превышает ограничение.
+     *
+     * @param a первая строка
+     * @param b вторая строка
+     * @param limit максимальное интересующее расстояние
+     * @return расстояние, либо limit + 1 если оно больше ограничения
+     */
+    public static int distance(String a, String b, int limit) {
+        return distance(a.toCharArray(), 0, a.length(), b, limit);
+    }
+
+    /**
+     * Вычисляет расстояние Левенштейна между отрезком массива символов и строкой, если оно не превышает ограничение.
+     * Позволяет сравнивать имена каталога, хранящиеся подряд в одном массиве, без создания строк.
+     *
+     * @param a символы первой строки
+     * @param offset начало первой строки в массиве
+     * @param n длина первой строки
+     * @param b вторая строка
+     * @param limit максимальное интересующее расстояние
+     * @return расстояние, либо limit + 1 если оно больше ограничения
+     */
+    public static int distance(char[] a, int offset, int n, String b, int limit) {
+        if (limit < 0) {
+            return limit + 1;
+        }
+        int m = b.length();
+        if (Math.abs(n - m) > limit) {
+            return limit + 1;
+        }
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+        // Расстояние не превышает длину большей строки
+        limit = Math.min(limit, Math.max(n, m));
+
+        // Ячейки за пределами полосы считаются бесконечными
+        int infinity = limit + 1;
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= limit ? j : infinity;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - limit);
+            int to = Math.min(m, i + limit);
+            current[0] = i <= limit ? i : infinity;
+            if (from > 1) {
+                current[from - 1] = infinity;
+            }
+
+            char ca = a[offset + i - 1];
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+                if (value > infinity) {
+                    value = infinity;
+                }
+                current[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+            if (to < m) {
+                current[to + 1] = infinity;
+            }
+            if (rowMin > limit) {
+                return infinity; // Дальше расстояние только растет
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], infinity);
+    }
+}
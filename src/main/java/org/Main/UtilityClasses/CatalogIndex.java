@@ -0,0 +1,408 @@
+package org.Main.UtilityClasses;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.Main.HelperClasses.ItemHelperEntry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Предзагруженный индекс каталога записей из src/main/resources/DataQueries.
+ * Если {@link SwapiSync} уже собрал каталог из локального снимка, используется он.
+ * JSON файл разбирается один раз, после чего поиск и показ всех записей
+ * работают по готовым массивам идентификаторов и нормализованных имен.
+ * Данные хранятся по столбцам: ID в int[], символы всех имен подряд в char[]
+ * с таблицами смещений, поэтому каталог из сотен тысяч записей занимает несколько массивов
+ * вместо миллионов строк, а записи для отображения создаются только по запросу.
+ */
+public final class CatalogIndex {
+    /** Логгер для записи событий индекса */
+    private static final Logger logger = LogManager.getLogger(CatalogIndex.class);
+
+    /** Путь к каталогу персонажей */
+    public static final String PEOPLE_CATALOG = "DataQueries/PeopleQueries.json";
+    /** Путь к каталогу планет */
+    public static final String PLANETS_CATALOG = "DataQueries/PlanetQueries.json";
+    /** Путь к каталогу кораблей */
+    public static final String STARSHIPS_CATALOG = "DataQueries/StarshipQueries.json";
+
+    /** Загруженные каталоги по пути к JSON файлу */
+    private static final Map<String, CatalogIndex> loadedCatalogs = new ConcurrentHashMap<>();
+
+    /** Путь к JSON файлу каталога */
+    private final String jsonFilePath;
+
+    /** ID сущностей в порядке следования в файле */
+    private final int[] ids;
+
+    /** Символы имен для отображения всех записей подряд */
+    private final char[] displayChars;
+
+    /** Начало имени записи i в displayChars, имя занимает [displayOffsets[i], displayOffsets[i + 1]) */
+    private final int[] displayOffsets;
+
+    /** Символы нормализованных вариантов имен всех записей подряд */
+    private final char[] variantChars;
+
+    /** Начало варианта с общим номером n в variantChars, вариант занимает [variantOffsets[n], variantOffsets[n + 1]) */
+    private final int[] variantOffsets;
+
+    /** Общий номер первого варианта записи i, варианты записи занимают [entryVariants[i], entryVariants[i + 1]) */
+    private final int[] entryVariants;
+
+    /** BK-дерево по вариантам имен, строится при первом обращении */
+    private volatile BKTree bkTree;
+
+    /** Префиксное дерево по вариантам имен, строится при первом обращении */
+    private volatile PrefixTrie prefixTrie;
+
+    private CatalogIndex(String jsonFilePath, int[] ids, CharColumn displayNames, CharColumn nameVariants,
+                         int[] entryVariants) {
+        this.jsonFilePath = jsonFilePath;
+        this.ids = ids;
+        this.displayChars = displayNames.chars();
+        this.displayOffsets = displayNames.offsets();
+        this.variantChars = nameVariants.chars();
+        this.variantOffsets = nameVariants.offsets();
+        this.entryVariants = entryVariants;
+    }
+
+    /**
+     * Столбец строк, записанных подряд в один массив символов, на время загрузки.
+     */
+    private static final class CharColumn {
+        /** Символы строк */
+        private char[] chars = new char[1024];
+
+        /** Начала строк, последний элемент — конец последней строки */
+        private int[] offsets = new int[64];
+
+        /** Количество строк */
+        private int count;
+
+        /** Количество занятых символов */
+        private int length;
+
+        /**
+         * Начинает новую строку.
+         */
+        private void startString() {
+            if (count + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            count++;
+            offsets[count] = length;
+        }
+
+        /**
+         * Дописывает символы к текущей строке.
+         *
+         * @param value добавляемые символы
+         */
+        private void append(String value) {
+            if (length + value.length() > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + value.length()));
+            }
+            value.getChars(0, value.length(), chars, length);
+            length += value.length();
+            offsets[count] = length;
+        }
+
+        private char[] chars() { return Arrays.copyOf(chars, length); }
+
+        private int[] offsets() { return Arrays.copyOf(offsets, count + 1); }
+    }
+
+    /**
+     * Возвращает индекс каталога, загружая его при первом обращении.
+     *
+     * @param jsonFilePath путь к JSON файлу
+     * @return загруженный индекс
+     * @throws IOException если файл не найден или поврежден
+     */
+    public static CatalogIndex get(String jsonFilePath) throws IOException {
+        try {
+            return loadedCatalogs.computeIfAbsent(jsonFilePath, path -> {
+                try {
+                    return load(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Сбрасывает загруженные каталоги, чтобы следующее обращение перечитало их с диска.
+     */
+    public static void invalidate() {
+        loadedCatalogs.clear();
+    }
+
+    /**
+     * Возвращает путь к каталогу, собранному из локального снимка SWAPI.
+     *
+     * @param jsonFilePath путь к каталогу в ресурсах
+     * @return путь к файлу в каталоге хранилища
+     */
+    public static Path syncedCatalogPath(String jsonFilePath) {
+        return SwapiClient.storeDirectory().resolve(jsonFilePath);
+    }
+
+    /**
+     * Заранее загружает все стандартные каталоги.
+     *
+     * @throws IOException если один из файлов не найден или поврежден
+     */
+    public static void preloadAll() throws IOException {
+        get(PEOPLE_CATALOG);
+        get(PLANETS_CATALOG);
+        get(STARSHIPS_CATALOG);
+    }
+
+    /**
+     * Приводит строку к виду, в котором хранятся варианты имен.
+     * Варианты и запросы сравниваются по ключам {@link MatchKeys}.
+     *
+     * @param value исходная строка
+     * @return нормализованная строка
+     */
+    public static String normalize(String value) {
+        return MatchKeys.normalize(value);
+    }
+
+    /**
+     * Читает и разбирает JSON файл каталога.
+     *
+     * @param jsonFilePath путь к JSON файлу
+     * @return построенный индекс
+     * @throws IOException если файл не найден или поврежден
+     */
+    private static CatalogIndex load(String jsonFilePath) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        Path syncedCatalog = syncedCatalogPath(jsonFilePath);
+        boolean synced = Files.isRegularFile(syncedCatalog);
+
+        try (InputStream inputStream = synced
+                ? Files.newInputStream(syncedCatalog)
+                : CatalogIndex.class.getClassLoader().getResourceAsStream(jsonFilePath)) {
+            if (inputStream == null) {
+                throw new FileNotFoundException("Файл не найден: " + jsonFilePath);
+            }
+
+            JsonNode rootNode = objectMapper.readTree(inputStream);
+            if (rootNode == null || !rootNode.isArray()) {
+                throw new IOException("Неверный формат каталога: " + jsonFilePath);
+            }
+
+            int[] ids = new int[rootNode.size()];
+            int[] entryVariants = new int[rootNode.size() + 1];
+            CharColumn displayNames = new CharColumn();
+            CharColumn nameVariants = new CharColumn();
+            int count = 0;
+
+            for (JsonNode object : rootNode) {
+                // Извлечение ID
+                JsonNode idNode = object.get("id");
+                int id;
+                if (idNode != null && idNode.isNumber()) {
+                    id = idNode.intValue();
+                } else if (idNode != null && idNode.isTextual()) {
+                    try {
+                        id = Integer.parseInt(idNode.textValue());
+                    } catch (NumberFormatException e) {
+                        logger.warn("Пропуск записи с некорректным ID {} в {}", idNode.textValue(), jsonFilePath);
+                        continue;
+                    }
+                } else {
+                    logger.warn("Пропуск записи без ID в {}", jsonFilePath);
+                    continue;
+                }
+
+                // Извлечение списка имен сразу в столбцы, без промежуточных списков
+                int firstVariant = entryVariants[count];
+                displayNames.startString();
+                JsonNode namesNode = object.get("strings");
+                if (namesNode != null && namesNode.isArray()) {
+                    for (JsonNode nameNode : namesNode) {
+                        if (nameNode.isTextual()) {
+                            if (nameVariants.count > firstVariant) {
+                                displayNames.append(", ");
+                            }
+                            displayNames.append(nameNode.textValue());
+                            nameVariants.startString();
+                            nameVariants.append(normalize(nameNode.textValue()));
+                        }
+                    }
+                }
+                if (nameVariants.count == firstVariant) {
+                    displayNames.append("Без имени");
+                }
+
+                ids[count] = id;
+                count++;
+                entryVariants[count] = nameVariants.count;
+            }
+
+            logger.info("Каталог {} загружен{}: {} записей", jsonFilePath, synced ? " из снимка" : "", count);
+            return new CatalogIndex(jsonFilePath,
+                    Arrays.copyOf(ids, count),
+                    displayNames,
+                    nameVariants,
+                    Arrays.copyOf(entryVariants, count + 1));
+        }
+    }
+
+    /**
+     * Возвращает путь к JSON файлу каталога.
+     *
+     * @return путь к файлу
+     */
+    public String getJsonFilePath() { return jsonFilePath; }
+
+    /**
+     * Возвращает количество записей в каталоге.
+     *
+     * @return количество записей
+     */
+    public int size() { return ids.length; }
+
+    /**
+     * Возвращает ID записи.
+     *
+     * @param index номер записи
+     * @return ID сущности
+     */
+    public int getId(int index) { return ids[index]; }
+
+    /**
+     * Возвращает имя записи для отображения.
+     *
+     * @param index номер записи
+     * @return имена, перечисленные через запятую
+     */
+    public String getDisplayName(int index) {
+        return new String(displayChars, displayOffsets[index], displayOffsets[index + 1] - displayOffsets[index]);
+    }
+
+    /**
+     * Возвращает количество вариантов имени записи.
+     *
+     * @param index номер записи
+     * @return количество вариантов
+     */
+    public int getVariantCount(int index) { return entryVariants[index + 1] - entryVariants[index]; }
+
+    /**
+     * Возвращает нормализованный вариант имени записи.
+     * Строка создается при каждом вызове, в циклах поиска следует использовать
+     * {@link #getVariantChars()}, {@link #getVariantStart} и {@link #getVariantLength}.
+     *
+     * @param index номер записи
+     * @param variant номер варианта
+     * @return вариант имени
+     */
+    public String getVariant(int index, int variant) {
+        return new String(variantChars, getVariantStart(index, variant), getVariantLength(index, variant));
+    }
+
+    /**
+     * Возвращает символы всех вариантов имен каталога. Массив общий и не должен изменяться.
+     *
+     * @return символы вариантов имен подряд
+     */
+    char[] getVariantChars() { return variantChars; }
+
+    /**
+     * Возвращает начало варианта имени записи в {@link #getVariantChars()}.
+     *
+     * @param index номер записи
+     * @param variant номер варианта
+     * @return позиция первого символа
+     */
+    public int getVariantStart(int index, int variant) { return variantOffsets[entryVariants[index] + variant]; }
+
+    /**
+     * Возвращает длину варианта имени записи.
+     *
+     * @param index номер записи
+     * @param variant номер варианта
+     * @return количество символов
+     */
+    public int getVariantLength(int index, int variant) {
+        int number = entryVariants[index] + variant;
+        return variantOffsets[number + 1] - variantOffsets[number];
+    }
+
+    /**
+     * Возвращает BK-дерево по вариантам имен каталога, строя его при первом обращении.
+     *
+     * @return метрический индекс каталога
+     */
+    public BKTree getBKTree() {
+        BKTree tree = bkTree;
+        if (tree == null) {
+            synchronized (this) {
+                tree = bkTree;
+                if (tree == null) {
+                    tree = new BKTree(this);
+                    bkTree = tree;
+                }
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Возвращает префиксное дерево по вариантам имен каталога, строя его при первом обращении.
+     *
+     * @return префиксное дерево каталога
+     */
+    public PrefixTrie getPrefixTrie() {
+        PrefixTrie trie = prefixTrie;
+        if (trie == null) {
+            synchronized (this) {
+                trie = prefixTrie;
+                if (trie == null) {
+                    trie = new PrefixTrie(this);
+                    prefixTrie = trie;
+                }
+            }
+        }
+        return trie;
+    }
+
+    /**
+     * Создает запись для отображения без расстояния.
+     *
+     * @param index номер записи
+     * @return запись для списка
+     */
+    public ItemHelperEntry toEntry(int index) {
+        return new ItemHelperEntry(ids[index], getDisplayName(index));
+    }
+
+    /**
+     * Создает запись для отображения с расстоянием.
+     *
+     * @param index номер записи
+     * @param nameDistance расстояние Левенштейна
+     * @return запись для списка
+     */
+    public ItemHelperEntry toEntry(int index, int nameDistance) {
+        return new ItemHelperEntry(ids[index], getDisplayName(index), nameDistance);
+    }
+}
@@ -0,0 +1,56 @@
+package org.Main.UtilityClasses;
+
+import javafx.collections.ObservableListBase;
+import org.Main.HelperClasses.ItemHelperEntry;
+
+/**
+ * Список всех записей каталога для {@link javafx.scene.control.ListView} без предварительного создания элементов.
+ * Запись создается при первом обращении к ее позиции, поэтому ListView, запрашивающий только видимые строки,
+ * открывает каталог из сотен тысяч записей так же быстро, как из нескольких десятков.
+ * Список только для чтения и не меняется, созданные записи сохраняются, чтобы выбор строк оставался стабильным.
+ */
+public class CatalogListModel extends ObservableListBase<ItemHelperEntry> {
+    /** Каталог, записи которого показывает список */
+    private final CatalogIndex catalog;
+
+    /** Уже созданные записи по номеру */
+    private final ItemHelperEntry[] materialized;
+
+    /**
+     * Создает список по загруженному каталогу.
+     *
+     * @param catalog загруженный каталог
+     */
+    public CatalogListModel(CatalogIndex catalog) {
+        this.catalog = catalog;
+        this.materialized = new ItemHelperEntry[catalog.size()];
+    }
+
+    /**
+     * Возвращает запись, создавая ее при первом обращении.
+     *
+     * @param index номер записи
+     * @return запись для списка
+     */
+    @Override
+    public ItemHelperEntry get(int index) {
+        ItemHelperEntry entry = materialized[index];
+        if (entry == null) {
+            entry = catalog.toEntry(index);
+            materialized[index] = entry;
+        }
+        return entry;
+    }
+
+    @Override
+    public int size() {
+        return materialized.length;
+    }
+
+    /**
+     * Возвращает каталог списка.
+     *
+     * @return каталог
+     */
+    public CatalogIndex getCatalog() { return catalog; }
+}
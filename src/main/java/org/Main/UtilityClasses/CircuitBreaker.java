@@ -0,0 +1,108 @@
+package org.Main.UtilityClasses;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+
+/**
+ * Автоматический выключатель запросов к SWAPI.
+ * После заданного количества ошибок подряд размыкается и сразу отклоняет запросы,
+ * а по истечении времени пропускает один пробный запрос, по результату которого
+ * замыкается снова или остается разомкнутым.
+ */
+public class CircuitBreaker {
+    /** Логгер для записи событий выключателя */
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+
+    /**
+     * Состояние выключателя.
+     */
+    public enum State {
+        /** Запросы проходят */
+        CLOSED,
+        /** Запросы отклоняются */
+        OPEN,
+        /** Пропущен один пробный запрос */
+        HALF_OPEN
+    }
+
+    /** Количество ошибок подряд для размыкания */
+    private final int failureThreshold;
+
+    /** Время в разомкнутом состоянии в наносекундах */
+    private final long openDurationNanos;
+
+    /** Текущее состояние */
+    private State state = State.CLOSED;
+
+    /** Количество ошибок подряд */
+    private int consecutiveFailures;
+
+    /** Момент размыкания по {@link System#nanoTime()} */
+    private long openedAtNanos;
+
+    /**
+     * Создает замкнутый выключатель.
+     *
+     * @param failureThreshold количество ошибок подряд для размыкания
+     * @param openDuration время в разомкнутом состоянии
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Проверяет, можно ли выполнить запрос.
+     *
+     * @return true если запрос можно выполнить
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                    state = State.HALF_OPEN;
+                    logger.info("Выключатель пропускает пробный запрос");
+                    return true;
+                }
+                return false;
+            default:
+                return false; // Пробный запрос уже выполняется
+        }
+    }
+
+    /**
+     * Отмечает успешный запрос.
+     */
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Выключатель замкнут, SWAPI снова доступен");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Отмечает неудачный запрос.
+     */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            logger.warn("Выключатель разомкнут после {} ошибок подряд", consecutiveFailures);
+        }
+    }
+
+    /**
+     * Возвращает текущее состояние.
+     *
+     * @return состояние выключателя
+     */
+    public synchronized State getState() {
+        return state;
+    }
+}
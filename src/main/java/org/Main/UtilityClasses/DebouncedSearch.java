@@ -0,0 +1,165 @@
+package org.Main.UtilityClasses;
+
+import javafx.application.Platform;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Поиск по мере ввода: запрос выполняется в фоновом потоке после паузы в наборе,
+ * а результат публикуется в JavaFX потоке.
+ * Каждый новый запрос отменяет ожидающий и прерывает выполняющийся поиск,
+ * поэтому в интерфейс попадает только результат последнего запроса.
+ *
+ * @param <R> тип результата поиска
+ */
+public class DebouncedSearch<R> implements AutoCloseable {
+    /** Логгер для записи событий поиска */
+    private static final Logger logger = LogManager.getLogger(DebouncedSearch.class);
+
+    /**
+     * Функция поиска. Должна проверять прерывание потока между этапами,
+     * чтобы устаревший поиск завершался как можно раньше.
+     *
+     * @param <R> тип результата
+     */
+    @FunctionalInterface
+    public interface Searcher<R> {
+        /**
+         * Выполняет поиск.
+         *
+         * @param query поисковый запрос
+         * @return результат поиска
+         * @throws Exception при ошибке поиска или прерывании
+         */
+        R search(String query) throws Exception;
+    }
+
+    /** Функция поиска */
+    private final Searcher<R> searcher;
+
+    /** Получатель результата, вызывается в JavaFX потоке */
+    private final Consumer<R> publisher;
+
+    /** Получатель ошибки, вызывается в JavaFX потоке */
+    private final Consumer<Exception> errorHandler;
+
+    /** Пауза в наборе, после которой запускается поиск */
+    private final Duration debounce;
+
+    /** Один фоновый поток и для ожидания паузы, и для поиска */
+    private final ScheduledThreadPoolExecutor executor;
+
+    /** Номер последнего запроса, результаты других запросов отбрасываются */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Ожидающий или выполняющийся поиск */
+    private ScheduledFuture<?> pending;
+
+    /**
+     * Создает поиск по мере ввода.
+     *
+     * @param searcher функция поиска
+     * @param publisher получатель результата в JavaFX потоке
+     * @param errorHandler получатель ошибки в JavaFX потоке
+     * @param debounce пауза в наборе перед запуском поиска
+     */
+    public DebouncedSearch(Searcher<R> searcher, Consumer<R> publisher, Consumer<Exception> errorHandler,
+                           Duration debounce) {
+        this.searcher = searcher;
+        this.publisher = publisher;
+        this.errorHandler = errorHandler;
+        this.debounce = debounce;
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Запускает поиск после паузы в наборе, отменяя предыдущий запрос.
+     *
+     * @param query поисковый запрос
+     */
+    public synchronized void submit(String query) {
+        schedule(query, debounce);
+    }
+
+    /**
+     * Запускает поиск без ожидания паузы, отменяя предыдущий запрос.
+     *
+     * @param query поисковый запрос
+     */
+    public synchronized void submitNow(String query) {
+        schedule(query, Duration.ZERO);
+    }
+
+    /**
+     * Отменяет ожидающий и выполняющийся поиск. Его результат не будет опубликован.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    private void schedule(String query, Duration delay) {
+        cancel();
+        long current = generation.get();
+        pending = executor.schedule(() -> run(query, current), delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Выполняет поиск в фоновом потоке и передает результат в JavaFX поток,
+     * если за это время не пришел новый запрос.
+     *
+     * @param query поисковый запрос
+     * @param current номер запроса
+     */
+    private void run(String query, long current) {
+        R result;
+        try {
+            result = searcher.search(query);
+        } catch (InterruptedException e) {
+            logger.debug("Поиск по запросу {} отменен", query);
+            return;
+        } catch (Exception e) {
+            if (generation.get() == current) {
+                Platform.runLater(() -> {
+                    if (generation.get() == current) {
+                        errorHandler.accept(e);
+                    }
+                });
+            }
+            return;
+        }
+        if (Thread.currentThread().isInterrupted() || generation.get() != current) {
+            return; // Пришел новый запрос
+        }
+        Platform.runLater(() -> {
+            // Проверка в JavaFX потоке: запрос мог смениться, пока результат ждал очереди
+            if (generation.get() == current) {
+                publisher.accept(result);
+            }
+        });
+    }
+
+    /**
+     * Отменяет поиск и останавливает фоновый поток.
+     */
+    @Override
+    public void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,196 @@
+package org.Main.UtilityClasses;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный по размеру кэш DTO сущностей SWAPI в памяти.
+ * Ключ кэша — тип ресурса и ID сущности. Вытесняются давно не используемые записи (LRU),
+ * а также записи, время жизни которых истекло.
+ */
+public class EntityCache {
+
+    /**
+     * Ключ записи кэша.
+     *
+     * @param resource имя ресурса SWAPI
+     * @param id идентификатор сущности
+     */
+    private record Key(String resource, int id) {}
+
+    /**
+     * Значение записи кэша вместе с моментом истечения.
+     *
+     * @param value DTO сущности
+     * @param expiresAtNanos момент истечения по {@link System#nanoTime()}
+     */
+    private record CachedValue(Object value, long expiresAtNanos) {}
+
+    /** Попадания всех кэшей сущностей в метриках приложения */
+    private static final Metrics.Counter HITS = Metrics.counter("cache.entity.hits");
+
+    /** Промахи всех кэшей сущностей в метриках приложения */
+    private static final Metrics.Counter MISSES = Metrics.counter("cache.entity.misses");
+
+    /** Вытеснения из всех кэшей сущностей в метриках приложения */
+    private static final Metrics.Counter EVICTIONS = Metrics.counter("cache.entity.evictions");
+
+    /** Максимальное количество записей */
+    private final int maxEntries;
+
+    /** Время жизни записи в наносекундах */
+    private final long ttlNanos;
+
+    /** Записи в порядке последнего обращения */
+    private final LinkedHashMap<Key, CachedValue> entries;
+
+    /** Количество попаданий */
+    private final LongAdder hits = new LongAdder();
+
+    /** Количество промахов */
+    private final LongAdder misses = new LongAdder();
+
+    /** Количество вытеснений по размеру и по времени жизни */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Создает кэш с ограничением размера и времени жизни записей.
+     *
+     * @param maxEntries максимальное количество записей
+     * @param ttl время жизни записи
+     */
+    public EntityCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Возвращает сущность из кэша.
+     *
+     * @param type тип ресурса
+     * @param id идентификатор сущности
+     * @param <T> тип DTO
+     * @return DTO сущности либо null, если записи нет или она устарела
+     */
+    public <T> T get(SwapiClient.ResourceType<T> type, int id) {
+        Key key = new Key(type.getPath(), id);
+        synchronized (entries) {
+            CachedValue cached = entries.get(key);
+            if (cached != null && System.nanoTime() - cached.expiresAtNanos() >= 0) {
+                entries.remove(key);
+                evictions.increment();
+                EVICTIONS.increment();
+                cached = null;
+            }
+            if (cached == null) {
+                misses.increment();
+                MISSES.increment();
+                return null;
+            }
+            hits.increment();
+            HITS.increment();
+            return type.getDtoClass().cast(cached.value());
+        }
+    }
+
+    /**
+     * Помещает сущность в кэш, вытесняя при необходимости самую старую запись.
+     *
+     * @param type тип ресурса
+     * @param id идентификатор сущности
+     * @param value DTO сущности
+     * @param <T> тип DTO
+     */
+    public <T> void put(SwapiClient.ResourceType<T> type, int id, T value) {
+        Key key = new Key(type.getPath(), id);
+        long now = System.nanoTime();
+        synchronized (entries) {
+            entries.put(key, new CachedValue(value, now + ttlNanos));
+            if (entries.size() > maxEntries) {
+                evictExpired(now);
+            }
+            Iterator<Map.Entry<Key, CachedValue>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+                EVICTIONS.increment();
+            }
+        }
+    }
+
+    /**
+     * Удаляет записи с истекшим временем жизни.
+     *
+     * @param now текущий момент по {@link System#nanoTime()}
+     */
+    private void evictExpired(long now) {
+        Iterator<CachedValue> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().expiresAtNanos() >= 0) {
+                iterator.remove();
+                evictions.increment();
+                EVICTIONS.increment();
+            }
+        }
+    }
+
+    /**
+     * Очищает кэш. Счетчики не сбрасываются.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Возвращает текущее количество записей.
+     *
+     * @return количество записей
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Возвращает количество попаданий.
+     *
+     * @return количество попаданий
+     */
+    public long getHits() { return hits.sum(); }
+
+    /**
+     * Возвращает количество промахов.
+     *
+     * @return количество промахов
+     */
+    public long getMisses() { return misses.sum(); }
+
+    /**
+     * Возвращает количество вытесненных записей.
+     *
+     * @return количество вытеснений
+     */
+    public long getEvictions() { return evictions.sum(); }
+
+    /**
+     * Форматирует статистику кэша для журнала.
+     *
+     * @return строка со счетчиками
+     */
+    @Override
+    public String toString() {
+        return "EntityCache[size=" + size() + "/" + maxEntries +
+                ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "]";
+    }
+}
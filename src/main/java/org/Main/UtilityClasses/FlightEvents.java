@@ -0,0 +1,220 @@
+package org.Main.UtilityClasses;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * События Java Flight Recorder для поиска, HTTP запросов к SWAPI и отрисовки окон.
+ * Пока запись не ведется, события не создают нагрузки: JIT убирает их создание,
+ * а поля заполняются только после проверки {@link Event#shouldCommit()}.
+ * Стеки вызовов не записываются, поэтому события можно держать включенными постоянно.
+ * <p>
+ * Непрерывная запись включается свойством swapi.jfr=true. Она хранит на диске
+ * последние swapi.jfr.maxAge (по умолчанию 30m) и не больше swapi.jfr.maxSize мегабайт (по умолчанию 256)
+ * и при завершении сохраняется в swapi.jfr.file (по умолчанию logs/swapi.jfr).
+ * Во время работы снимок можно сохранить командой jcmd &lt;pid&gt; JFR.dump name=swapi.
+ */
+public final class FlightEvents {
+    /** Логгер для записи событий профилирования */
+    private static final Logger logger = LogManager.getLogger(FlightEvents.class);
+
+    /** Имя непрерывной записи */
+    private static final String RECORDING_NAME = "swapi";
+
+    /** Непрерывная запись или null, если она не запущена */
+    private static Recording recording;
+
+    private FlightEvents() {
+    }
+
+    /**
+     * Поиск по каталогу.
+     */
+    @Name("org.Main.Search")
+    @Label("Поиск")
+    @Category({"SW API", "Поиск"})
+    @StackTrace(false)
+    public static final class SearchEvent extends Event {
+        @Label("Метод")
+        @Description("Способ поиска: closest, top, within, nearest или incremental")
+        String method;
+
+        @Label("Каталог")
+        String catalog;
+
+        @Label("Запрос")
+        String query;
+
+        @Label("Кандидатов")
+        @Description("Количество записей каталога")
+        int candidates;
+
+        @Label("Результатов")
+        int results;
+
+        /**
+         * Записывает событие, если запись ведется и длительность выше порога.
+         *
+         * @param method способ поиска
+         * @param catalog путь к каталогу
+         * @param query поисковый запрос
+         * @param candidates количество записей каталога
+         * @param results количество найденных записей
+         */
+        public void complete(String method, String catalog, String query, int candidates, int results) {
+            if (shouldCommit()) {
+                this.method = method;
+                this.catalog = catalog;
+                this.query = query;
+                this.candidates = candidates;
+                this.results = results;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * HTTP запрос к SWAPI от отправки до окончания разбора тела.
+     */
+    @Name("org.Main.HttpRequest")
+    @Label("HTTP запрос SWAPI")
+    @Category({"SW API", "HTTP"})
+    @StackTrace(false)
+    public static final class HttpEvent extends Event {
+        @Label("Конечная точка")
+        String endpoint;
+
+        @Label("Статус")
+        @Description("HTTP статус, 0 при ошибке соединения")
+        int status;
+
+        @Label("Прочитано")
+        @DataAmount
+        long bytes;
+
+        /**
+         * Оборачивает поток тела ответа, чтобы считать прочитанные байты.
+         * Если событие не записывается, поток возвращается без изменений.
+         *
+         * @param body поток тела ответа
+         * @return поток с подсчетом байтов
+         */
+        public InputStream track(InputStream body) {
+            if (!isEnabled()) {
+                return body;
+            }
+            return new FilterInputStream(body) {
+                @Override
+                public int read() throws IOException {
+                    int value = super.read();
+                    if (value >= 0) {
+                        bytes++;
+                    }
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int count = super.read(buffer, offset, length);
+                    if (count > 0) {
+                        bytes += count;
+                    }
+                    return count;
+                }
+            };
+        }
+
+        /**
+         * Записывает событие, если запись ведется и длительность выше порога.
+         *
+         * @param endpoint конечная точка API
+         * @param status HTTP статус или 0
+         */
+        public void complete(String endpoint, int status) {
+            if (shouldCommit()) {
+                this.endpoint = endpoint;
+                this.status = status;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Построение окна с данными сущности до его показа.
+     */
+    @Name("org.Main.Render")
+    @Label("Отрисовка окна")
+    @Category({"SW API", "Интерфейс"})
+    @StackTrace(false)
+    public static final class RenderEvent extends Event {
+        @Label("Заголовок")
+        String title;
+
+        @Label("Элементов")
+        @Description("Количество элементов в окне")
+        int nodes;
+
+        /**
+         * Записывает событие, если запись ведется и длительность выше порога.
+         *
+         * @param title заголовок окна
+         * @param nodes количество элементов в окне
+         */
+        public void complete(String title, int nodes) {
+            if (shouldCommit()) {
+                this.title = title;
+                this.nodes = nodes;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Запускает непрерывную запись, если она включена свойством swapi.jfr=true.
+     * Запись использует настройки JFR default и включает события приложения.
+     * Ошибка запуска записывается в лог и не мешает работе приложения.
+     */
+    public static synchronized void startRecordingIfEnabled() {
+        if (recording != null || !Boolean.getBoolean("swapi.jfr")) {
+            return;
+        }
+        Path file = Path.of(System.getProperty("swapi.jfr.file", "logs/swapi.jfr"));
+        try {
+            Recording started = new Recording(Configuration.getConfiguration("default"));
+            started.setName(RECORDING_NAME);
+            started.enable(SearchEvent.class);
+            started.enable(HttpEvent.class);
+            started.enable(RenderEvent.class);
+            started.setToDisk(true);
+            started.setMaxAge(Duration.parse("PT" + System.getProperty("swapi.jfr.maxAge", "30m")));
+            started.setMaxSize(Long.getLong("swapi.jfr.maxSize", 256) * 1024 * 1024);
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            started.setDestination(file);
+            started.setDumpOnExit(true);
+            started.start();
+            recording = started;
+            logger.info("Непрерывная запись JFR запущена, при завершении будет сохранена в {}", file);
+        } catch (IOException | ParseException | RuntimeException e) {
+            logger.warn("Не удалось запустить запись JFR: {}", e.getMessage());
+        }
+    }
+}
@@ -5,86 +5,167 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.Main.HelperClasses.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
- * Класс для отображения детальной информации о сущностях SWAPI.
- * Создает окна с информацией о персонажах, планетах и кораблях.
+ * Окно для отображения детальной информации о сущностях SWAPI.
+ * Одно немодальное окно с вкладкой на каждую сущность: вкладка открывается сразу с индикатором загрузки
+ * и заполняется, когда данные сущности загружены, поэтому несколько сущностей загружаются параллельно,
+ * а окно не блокирует главное окно приложения.
+ * Методы вызываются в JavaFX потоке.
  */
 public class ItemDisplayWindow {
+    /** Окно просмотра */
+    private final Stage window;
+
+    /** Вкладки сущностей */
+    private final TabPane tabPane;
 
     /**
-     * Отображает окно с информацией о персонаже.
-     *
-     * @param person объект с данными персонажа
+     * Создает окно просмотра. Окно показывается методом {@link #show()}.
      */
-    public static void showPersonWindow(PersonInfoDTO person) {
-        showItemWindow(
-                "Персонаж: " + person.name(),
-                content -> addPersonDetails(content, person)
-        );
+    public ItemDisplayWindow() {
+        window = new Stage();
+        window.setTitle("Просмотр записей");
+
+        tabPane = new TabPane();
+        VBox.setVgrow(tabPane, Priority.ALWAYS);
+
+        Button closeButton = new Button("Закрыть");
+        closeButton.setOnAction(e -> window.close());
+
+        VBox layout = new VBox(10);
+        layout.setPadding(new Insets(15));
+        layout.setAlignment(Pos.TOP_LEFT);
+        layout.getChildren().addAll(tabPane, closeButton);
+
+        window.setScene(new Scene(layout, 550, 550));
+        // Закрытое окно при следующем открытии показывает только новые записи
+        window.setOnHidden(e -> tabPane.getTabs().clear());
     }
 
     /**
-     * Отображает окно с информацией о планете.
-     *
-     * @param planet объект с данными планеты
+     * Показывает окно, если оно скрыто, и выводит его на передний план.
      */
-    public static void showPlanetWindow(PlanetInfoDTO planet) {
-        showItemWindow(
-                "Планета: " + planet.name(),
-                content -> addPlanetDetails(content, planet)
-        );
+    public void show() {
+        if (!window.isShowing()) {
+            window.show();
+        }
+        window.toFront();
     }
 
     /**
-     * Отображает окно с информацией о корабле.
+     * Добавляет вкладку с индикатором загрузки.
      *
-     * @param starship объект с данными корабля
+     * @param title заголовок вкладки до загрузки данных
+     * @return вкладка, которую нужно заполнить после загрузки
      */
-    public static void showStarshipWindow(StarshipInfoDTO starship) {
-        showItemWindow(
-                "Корабль: " + starship.name(),
-                content -> addStarshipDetails(content, starship)
-        );
+    public EntityTab addPlaceholder(String title) {
+        ProgressIndicator progress = new ProgressIndicator();
+        progress.setMaxSize(48, 48);
+        Tab tab = new Tab(title, new StackPane(progress));
+        tabPane.getTabs().add(tab);
+        return new EntityTab(tab, title);
     }
 
     /**
-     * Создает общее окно для отображения информации.
-     *
-     * @param title заголовок окна
-     * @param detailsBuilder функция для добавления деталей
+     * Вкладка одной сущности.
      */
-    private static void showItemWindow(String title, Consumer<VBox> detailsBuilder) {
-        Stage window = new Stage();
-        window.initModality(Modality.APPLICATION_MODAL);
-        window.setTitle(title);
+    public static final class EntityTab {
+        /** Вкладка окна */
+        private final Tab tab;
 
-        VBox layout = new VBox(10);
-        layout.setPadding(new Insets(15));
-        layout.setAlignment(Pos.TOP_LEFT);
+        /** Заголовок вкладки до загрузки, например "Персонаж ID 5" */
+        private final String placeholderTitle;
 
-        ScrollPane scrollPane = new ScrollPane();
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefHeight(400);
+        /** Прокрутка содержимого, создается при первом заполнении */
+        private ScrollPane scrollPane;
 
-        VBox content = new VBox(10);
-        detailsBuilder.accept(content);
-        scrollPane.setContent(content);
+        private EntityTab(Tab tab, String placeholderTitle) {
+            this.tab = tab;
+            this.placeholderTitle = placeholderTitle;
+        }
 
-        Button closeButton = new Button("Закрыть");
-        closeButton.setOnAction(e -> window.close());
+        /**
+         * Показывает информацию о персонаже, заменяя ссылки известными названиями.
+         * Вызывается повторно, когда названия связанных ресурсов получены.
+         *
+         * @param person объект с данными персонажа
+         * @param linkNames названия связанных ресурсов по ссылке
+         */
+        public void showPerson(PersonInfoDTO person, Map<String, String> linkNames) {
+            fill("Персонаж: " + person.name(), content -> addPersonDetails(content, person, linkNames));
+        }
 
-        layout.getChildren().addAll(scrollPane, closeButton);
+        /**
+         * Показывает информацию о планете, заменяя ссылки известными названиями.
+         * Вызывается повторно, когда названия связанных ресурсов получены.
+         *
+         * @param planet объект с данными планеты
+         * @param linkNames названия связанных ресурсов по ссылке
+         */
+        public void showPlanet(PlanetInfoDTO planet, Map<String, String> linkNames) {
+            fill("Планета: " + planet.name(), content -> addPlanetDetails(content, planet, linkNames));
+        }
+
+        /**
+         * Показывает информацию о корабле, заменяя ссылки известными названиями.
+         * Вызывается повторно, когда названия связанных ресурсов получены.
+         *
+         * @param starship объект с данными корабля
+         * @param linkNames названия связанных ресурсов по ссылке
+         */
+        public void showStarship(StarshipInfoDTO starship, Map<String, String> linkNames) {
+            fill("Корабль: " + starship.name(), content -> addStarshipDetails(content, starship, linkNames));
+        }
+
+        /**
+         * Показывает ошибку загрузки вместо данных.
+         * В заголовке остается описание сущности и ее ID, чтобы было видно, какая запись не загрузилась.
+         *
+         * @param message текст ошибки
+         */
+        public void showError(String message) {
+            Label errorLabel = new Label(message);
+            errorLabel.setWrapText(true);
+            errorLabel.setStyle("-fx-text-fill: #b00020;");
+            tab.setText(placeholderTitle + " — ошибка");
+            tab.setContent(new VBox(10, new Label("Не удалось загрузить данные:"), errorLabel));
+        }
+
+        /**
+         * Заполняет вкладку. Время построения содержимого записывается событием JFR.
+         *
+         * @param title заголовок вкладки
+         * @param detailsBuilder функция для добавления деталей
+         */
+        private void fill(String title, Consumer<VBox> detailsBuilder) {
+            FlightEvents.RenderEvent event = new FlightEvents.RenderEvent();
+            event.begin();
 
-        Scene scene = new Scene(layout, 500, 500);
-        window.setScene(scene);
-        window.showAndWait();
+            VBox content = new VBox(10);
+            content.setPadding(new Insets(10));
+            detailsBuilder.accept(content);
+
+            if (scrollPane == null) {
+                scrollPane = new ScrollPane();
+                scrollPane.setFitToWidth(true);
+            }
+            // При повторном заполнении позиция прокрутки сохраняется
+            double scroll = scrollPane.getVvalue();
+            scrollPane.setContent(content);
+            scrollPane.setVvalue(scroll);
+
+            tab.setText(title);
+            tab.setContent(scrollPane);
+            event.complete(title, content.getChildren().size());
+        }
     }
 
     /**
@@ -92,8 +173,9 @@ public class ItemDisplayWindow {
      *
      * @param content контейнер для добавления элементов
      * @param person данные персонажа
+     * @param linkNames названия связанных ресурсов по ссылке
      */
-    private static void addPersonDetails(VBox content, PersonInfoDTO person) {
+    private static void addPersonDetails(VBox content, PersonInfoDTO person, Map<String, String> linkNames) {
         addDetail(content, "Имя:", person.name());
         addDetail(content, "Рост:", person.height() + " см");
         addDetail(content, "Вес:", person.mass() + " кг");
@@ -102,12 +184,12 @@ public class ItemDisplayWindow {
         addDetail(content, "Цвет глаз:", person.eye_color());
         addDetail(content, "Год рождения:", person.birth_year());
         addDetail(content, "Пол:", person.gender());
-        addDetail(content, "Родная планета:", person.homeworld());
+        addDetail(content, "Родная планета:", linkName(linkNames, person.homeworld()));
 
-        addOptionalList(content, "Фильмы:", person.films());
-        addOptionalList(content, "Виды:", person.species());
-        addOptionalList(content, "Транспорт:", person.vehicles());
-        addOptionalList(content, "Корабли:", person.starships());
+        addOptionalList(content, "Фильмы:", linkNames(linkNames, person.films()));
+        addOptionalList(content, "Виды:", linkNames(linkNames, person.species()));
+        addOptionalList(content, "Транспорт:", linkNames(linkNames, person.vehicles()));
+        addOptionalList(content, "Корабли:", linkNames(linkNames, person.starships()));
     }
 
     /**
@@ -115,8 +197,9 @@ public class ItemDisplayWindow {
      *
      * @param content контейнер для добавления элементов
      * @param planet данные планеты
+     * @param linkNames названия связанных ресурсов по ссылке
      */
-    private static void addPlanetDetails(VBox content, PlanetInfoDTO planet) {
+    private static void addPlanetDetails(VBox content, PlanetInfoDTO planet, Map<String, String> linkNames) {
         addDetail(content, "Название:", planet.name());
         addDetail(content, "Диаметр:", planet.diameter() + " км");
         addDetail(content, "Период вращения:", planet.rotation_period() + " часов");
@@ -127,8 +210,8 @@ public class ItemDisplayWindow {
         addDetail(content, "Рельеф:", planet.terrain());
         addDetail(content, "Поверхностная вода:", planet.surface_water() + "%");
 
-        addOptionalList(content, "Жители:", planet.residents());
-        addOptionalList(content, "Фильмы:", planet.films());
+        addOptionalList(content, "Жители:", linkNames(linkNames, planet.residents()));
+        addOptionalList(content, "Фильмы:", linkNames(linkNames, planet.films()));
     }
 
     /**
@@ -136,8 +219,9 @@ public class ItemDisplayWindow {
      *
      * @param content контейнер для добавления элементов
      * @param starship данные корабля
+     * @param linkNames названия связанных ресурсов по ссылке
      */
-    private static void addStarshipDetails(VBox content, StarshipInfoDTO starship) {
+    private static void addStarshipDetails(VBox content, StarshipInfoDTO starship, Map<String, String> linkNames) {
         addDetail(content, "Название:", starship.name());
         addDetail(content, "Модель:", starship.model());
         addDetail(content, "Производитель:", starship.manufacturer());
@@ -152,8 +236,37 @@ public class ItemDisplayWindow {
         addDetail(content, "MGLT:", starship.MGLT());
         addDetail(content, "Класс корабля:", starship.starship_class());
 
-        addOptionalList(content, "Пилоты:", starship.pilots());
-        addOptionalList(content, "Фильмы:", starship.films());
+        addOptionalList(content, "Пилоты:", linkNames(linkNames, starship.pilots()));
+        addOptionalList(content, "Фильмы:", linkNames(linkNames, starship.films()));
+    }
+
+    /**
+     * Заменяет ссылку на название связанного ресурса, если оно известно.
+     *
+     * @param linkNames названия связанных ресурсов по ссылке
+     * @param link ссылка на ресурс
+     * @return название ресурса либо исходная ссылка
+     */
+    private static String linkName(Map<String, String> linkNames, String link) {
+        return link != null ? linkNames.getOrDefault(link, link) : null;
+    }
+
+    /**
+     * Заменяет ссылки в списке на названия связанных ресурсов.
+     *
+     * @param linkNames названия связанных ресурсов по ссылке
+     * @param links ссылки на ресурсы
+     * @return список названий либо null для отсутствующего списка
+     */
+    private static List<String> linkNames(Map<String, String> linkNames, List<String> links) {
+        if (links == null) {
+            return null;
+        }
+        List<String> names = new ArrayList<>(links.size());
+        for (String link : links) {
+            names.add(linkName(linkNames, link));
+        }
+        return names;
     }
 
     /**
@@ -1,19 +1,12 @@
 package org.Main.UtilityClasses;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import javafx.application.Platform;
-import javafx.collections.ObservableList;
 import javafx.scene.control.Alert;
-import org.Main.HelperClasses.ItemHelperEntry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Инструменты для отображения различных элементов интерфейса в программе.
@@ -23,47 +16,24 @@ public class JavaFXWindowsUtility {
     private static final Logger logger = LogManager.getLogger(JavaFXWindowsUtility.class);
 
     /**
-     * Загружает и отображает все записи из JSON файла.
+     * Загружает все записи из JSON файла в фоновом потоке.
+     * Каталог берется из {@link CatalogIndex} и разбирается только при первом обращении,
+     * записи списка создаются по мере того, как ListView запрашивает видимые строки.
      *
      * @param jsonFilePath путь к JSON файлу
-     * @param targetObservableList список для заполнения результатами
-     * @throws IOException если файл не найден или поврежден
+     * @return future со списком всех записей для {@link javafx.scene.control.ListView#setItems},
+     * завершается с {@link IOException}, если файл не найден или поврежден
      */
-    public static void showAll(String jsonFilePath, ObservableList<ItemHelperEntry> targetObservableList) throws IOException {
-        targetObservableList.clear();
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        try (InputStream inputStream = JavaFXWindowsUtility.class.getClassLoader().getResourceAsStream(jsonFilePath)) {
-            if (inputStream == null) {
-                throw new FileNotFoundException("Файл не найден: " + jsonFilePath);
-            }
-
-            List<Map<String, Object>> objects = objectMapper.readValue(inputStream, new TypeReference<>() {});
-
-            for (Map<String, Object> object : objects) {
-                try {
-                    // Обработка ID
-                    Object idObj = object.get("id");
-                    int id;
-                    if (idObj instanceof Number) {
-                        id = ((Number) idObj).intValue();
-                    } else if (idObj instanceof String) {
-                        id = Integer.parseInt((String) idObj);
-                    } else {
-                        throw new IllegalArgumentException("Неверный тип ID: " +
-                                (idObj != null ? idObj.getClass().getName() : "null"));
-                    }
-
-                    // Обработка имен
-                    List<String> names = objectMapper.convertValue(object.get("strings"), new TypeReference<>() {});
-                    String name = String.join(", ", names);
-                    targetObservableList.add(new ItemHelperEntry(id, name));
-
-                } catch (Exception e) {
-                    throw new IOException("Ошибка обработки элемента с id: " + object.get("id"), e);
-                }
+    public static CompletableFuture<CatalogListModel> loadAllAsync(String jsonFilePath) {
+        CompletableFuture<CatalogListModel> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("catalog-loader").start(() -> {
+            try {
+                result.complete(new CatalogListModel(CatalogIndex.get(jsonFilePath)));
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
             }
-        }
+        });
+        return result;
     }
 
     /**
@@ -0,0 +1,260 @@
+package org.Main.UtilityClasses;
+
+import org.Main.HelperClasses.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Заменяет ссылки SWAPI в DTO (родная планета, фильмы, пилоты, жители и т.д.) на названия.
+ * Ссылки всех вызовов {@link #resolve} попадают в одну очередь: ограничение количества
+ * одновременных запросов общее для разрешителя, а ссылка, которая уже ждет разрешения
+ * для другой сущности, не запрашивается повторно.
+ * Повторные запросы одних и тех же ресурсов позже обслуживаются кэшем {@link SwapiClient}.
+ */
+public class LinkResolver {
+    /** Логгер для записи событий разрешения ссылок */
+    private static final Logger logger = LogManager.getLogger(LinkResolver.class);
+
+    /** Часть ссылки, после которой начинается конечная точка API */
+    private static final String API_MARKER = "/api/";
+
+    /** Клиент SWAPI для запроса связанных ресурсов */
+    private final SwapiClient swapiClient;
+
+    /** Максимальное количество одновременных запросов */
+    private final int maxParallelism;
+
+    /** Ссылки, ожидающие запроса */
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+
+    /** Названия ссылок, которые ждут в очереди или запрашиваются, по ссылке */
+    private final Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+    /** Количество работающих исполнителей очереди, не больше maxParallelism */
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    /**
+     * Создает разрешитель ссылок.
+     *
+     * @param swapiClient клиент SWAPI
+     * @param maxParallelism максимальное количество одновременных запросов
+     */
+    public LinkResolver(SwapiClient swapiClient, int maxParallelism) {
+        this.swapiClient = swapiClient;
+        this.maxParallelism = Math.max(1, maxParallelism);
+    }
+
+    /**
+     * Собирает все ссылки персонажа.
+     *
+     * @param person данные персонажа
+     * @return ссылки на связанные ресурсы
+     */
+    public static Set<String> collectLinks(PersonInfoDTO person) {
+        Set<String> links = new LinkedHashSet<>();
+        addLink(links, person.homeworld());
+        addLinks(links, person.films());
+        addLinks(links, person.species());
+        addLinks(links, person.vehicles());
+        addLinks(links, person.starships());
+        return links;
+    }
+
+    /**
+     * Собирает все ссылки планеты.
+     *
+     * @param planet данные планеты
+     * @return ссылки на связанные ресурсы
+     */
+    public static Set<String> collectLinks(PlanetInfoDTO planet) {
+        Set<String> links = new LinkedHashSet<>();
+        addLinks(links, planet.residents());
+        addLinks(links, planet.films());
+        return links;
+    }
+
+    /**
+     * Собирает все ссылки корабля.
+     *
+     * @param starship данные корабля
+     * @return ссылки на связанные ресурсы
+     */
+    public static Set<String> collectLinks(StarshipInfoDTO starship) {
+        Set<String> links = new LinkedHashSet<>();
+        addLinks(links, starship.pilots());
+        addLinks(links, starship.films());
+        return links;
+    }
+
+    private static void addLink(Set<String> links, String link) {
+        if (link != null && link.contains(API_MARKER)) {
+            links.add(link);
+        }
+    }
+
+    private static void addLinks(Set<String> links, List<String> items) {
+        if (items != null) {
+            for (String item : items) {
+                addLink(links, item);
+            }
+        }
+    }
+
+    /**
+     * Запрашивает названия для всех ссылок.
+     * Вместе со ссылками других вызовов одновременно выполняются не более maxParallelism запросов.
+     * Ошибки отдельных ссылок не прерывают работу: такие ссылки просто отсутствуют в результате.
+     *
+     * @param links ссылки на ресурсы SWAPI, повторы допускаются
+     * @return future с названиями по ссылке, никогда не завершается с ошибкой
+     */
+    public CompletableFuture<Map<String, String>> resolve(Collection<String> links) {
+        Set<String> uniqueLinks = new LinkedHashSet<>(links);
+        if (uniqueLinks.isEmpty()) {
+            return CompletableFuture.completedFuture(new ConcurrentHashMap<>());
+        }
+
+        Map<String, CompletableFuture<String>> requested = new LinkedHashMap<>();
+        int queued = 0;
+        for (String link : uniqueLinks) {
+            CompletableFuture<String> name = pending.get(link);
+            if (name == null) {
+                CompletableFuture<String> created = new CompletableFuture<>();
+                name = pending.putIfAbsent(link, created);
+                if (name == null) {
+                    name = created;
+                    queue.add(link);
+                    queued++;
+                }
+            }
+            requested.put(link, name);
+        }
+        logger.info("Разрешение {} ссылок, из них новых {}, не более {} запросов одновременно",
+                uniqueLinks.size(), queued, maxParallelism);
+        startWorkers();
+
+        return CompletableFuture.allOf(requested.values().toArray(CompletableFuture<?>[]::new))
+                .handle((ignored, error) -> {
+                    Map<String, String> names = new ConcurrentHashMap<>();
+                    requested.forEach((link, name) -> {
+                        String value = name.isCompletedExceptionally() ? null : name.join();
+                        if (value != null) {
+                            names.put(link, value);
+                        }
+                    });
+                    return names;
+                });
+    }
+
+    /**
+     * Запускает исполнителей очереди, пока есть ссылки и не достигнуто ограничение.
+     */
+    private void startWorkers() {
+        while (!queue.isEmpty()) {
+            int active = activeWorkers.get();
+            if (active >= maxParallelism) {
+                return;
+            }
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                resolveNext();
+            }
+        }
+    }
+
+    /**
+     * Берет ссылки из очереди и разрешает их по одной.
+     * Уже готовые результаты (например, из кэша) обрабатываются в цикле, чтобы длинная очередь
+     * не увеличивала глубину стека. Исполнитель продолжает работу в потоке ответа, если результат
+     * еще не готов, и завершается, когда очередь пуста.
+     */
+    private void resolveNext() {
+        while (true) {
+            String link = queue.poll();
+            if (link == null) {
+                activeWorkers.decrementAndGet();
+                startWorkers(); // Ссылка могла попасть в очередь после проверки
+                return;
+            }
+
+            CompletableFuture<String> name = pending.get(link);
+            CompletableFuture<String> request;
+            try {
+                request = resolveOne(link);
+            } catch (RuntimeException e) {
+                request = CompletableFuture.failedFuture(e);
+            }
+            if (!request.isDone()) {
+                request.whenComplete((value, error) -> {
+                    complete(link, name, value, error);
+                    resolveNext();
+                });
+                return;
+            }
+            request.whenComplete((value, error) -> complete(link, name, value, error));
+        }
+    }
+
+    /**
+     * Передает результат разрешения ссылки всем ожидающим ее вызовам.
+     *
+     * @param link ссылка на ресурс
+     * @param name future названия, выданный вызовам {@link #resolve}
+     * @param value название ресурса, если запрос успешен
+     * @param error ошибка запроса либо null
+     */
+    private void complete(String link, CompletableFuture<String> name, String value, Throwable error) {
+        pending.remove(link, name);
+        if (error != null) {
+            logger.warn("Не удалось получить название для {}: {}", link, SwapiClient.unwrap(error).getMessage());
+            name.completeExceptionally(error);
+        } else {
+            name.complete(value);
+        }
+    }
+
+    /**
+     * Запрашивает название одного ресурса по ссылке.
+     *
+     * @param link ссылка вида https://www.swapi.tech/api/planets/1
+     * @return future с названием ресурса
+     */
+    private CompletableFuture<String> resolveOne(String link) {
+        String endpoint = link.substring(link.indexOf(API_MARKER) + API_MARKER.length());
+        int slash = endpoint.indexOf('/');
+        int id;
+        try {
+            id = Integer.parseInt(slash >= 0 ? endpoint.substring(slash + 1).replace("/", "") : "");
+        } catch (NumberFormatException e) {
+            return CompletableFuture.failedFuture(new SwapiClient.SwapiException("Неверная ссылка: " + link));
+        }
+
+        switch (endpoint.substring(0, slash)) {
+            case "people":
+                return swapiClient.getPersonAsync(id).thenApply(PersonInfoDTO::name);
+            case "planets":
+                return swapiClient.getPlanetAsync(id).thenApply(PlanetInfoDTO::name);
+            case "starships":
+                return swapiClient.getStarshipAsync(id).thenApply(StarshipInfoDTO::name);
+            case "films":
+                return swapiClient.fetchAsync(SwapiClient.ResourceType.FILMS, id).thenApply(ResourceNameDTO::displayName);
+            case "species":
+                return swapiClient.fetchAsync(SwapiClient.ResourceType.SPECIES, id).thenApply(ResourceNameDTO::displayName);
+            case "vehicles":
+                return swapiClient.fetchAsync(SwapiClient.ResourceType.VEHICLES, id).thenApply(ResourceNameDTO::displayName);
+            default:
+                return CompletableFuture.failedFuture(new SwapiClient.SwapiException("Неизвестный ресурс: " + link));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.Main.UtilityClasses;
+
+import java.text.Normalizer;
+
+/**
+ * Приведение имен и поисковых запросов к ключам сравнения.
+ * Ключ получается приведением к нижнему регистру, транслитерацией кириллицы латиницей
+ * и удалением диакритических знаков, поэтому "Люк Скайуокер", "LUKE" и "Padmé"
+ * сравниваются с запросами "lyuk", "luke" и "padme" в одном алфавите.
+ * Имена каталога приводятся к ключам один раз при загрузке, запрос — один раз перед поиском.
+ */
+public final class MatchKeys {
+
+    /** Латинские соответствия строчных букв кириллицы, начиная с 'а' */
+    private static final String[] CYRILLIC = {
+            "a", "b", "v", "g", "d", "e", "zh", "z", "i", "y", "k", "l", "m", "n", "o", "p",
+            "r", "s", "t", "u", "f", "kh", "ts", "ch", "sh", "shch", "", "y", "", "e", "yu", "ya"
+    };
+
+    private MatchKeys() {
+    }
+
+    /**
+     * Возвращает ключ сравнения строки.
+     * Для строк из строчных латинских букв и знаков ASCII возвращается та же строка без копирования.
+     *
+     * @param value исходная строка
+     * @return ключ сравнения
+     */
+    public static String normalize(String value) {
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+                break;
+            }
+            i++;
+        }
+        if (i == value.length()) {
+            return value;
+        }
+
+        StringBuilder key = new StringBuilder(value.length() + 8).append(value, 0, i);
+        boolean decompose = false;
+        for (; i < value.length(); i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            if (c >= 'а' && c <= 'я') {
+                key.append(CYRILLIC[c - 'а']);
+            } else if (c == 'ё') {
+                key.append('e');
+            } else {
+                key.append(c);
+                decompose |= c >= 0x80;
+            }
+        }
+        if (!decompose) {
+            return key.toString();
+        }
+
+        // Разложение на базовую букву и диакритические знаки, которые затем отбрасываются
+        String decomposed = Normalizer.normalize(key, Normalizer.Form.NFD);
+        key.setLength(0);
+        for (int j = 0; j < decomposed.length(); j++) {
+            char c = decomposed.charAt(j);
+            int type = Character.getType(c);
+            if (type != Character.NON_SPACING_MARK && type != Character.COMBINING_SPACING_MARK
+                    && type != Character.ENCLOSING_MARK) {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+}
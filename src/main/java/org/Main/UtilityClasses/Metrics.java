@@ -0,0 +1,265 @@
+package org.Main.UtilityClasses;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Реестр метрик приложения: таймеры с гистограммой задержек и счетчики.
+ * Запись не использует блокировок: гистограмма хранит атомарные счетчики логарифмических корзин,
+ * сумма и количество накапливаются в {@link LongAdder}.
+ * Каждая метрика при создании публикуется в JMX как org.Main:type=Timer|Counter,name=имя
+ * и видна, например, в JConsole или VisualVM. Публикация отключается свойством swapi.metrics.jmx=false.
+ */
+public final class Metrics {
+    /** Логгер для записи событий реестра */
+    private static final Logger logger = LogManager.getLogger(Metrics.class);
+
+    /** Домен JMX имен */
+    private static final String JMX_DOMAIN = "org.Main";
+
+    /** Публиковать ли метрики в JMX */
+    private static final boolean JMX_ENABLED = Boolean.parseBoolean(System.getProperty("swapi.metrics.jmx", "true"));
+
+    /** Таймеры по имени */
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /** Счетчики по имени */
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Атрибуты таймера в JMX.
+     */
+    public interface TimerMXBean {
+        long getCount();
+        double getMeanMillis();
+        double getMaxMillis();
+        double getP50Millis();
+        double getP95Millis();
+        double getP99Millis();
+    }
+
+    /**
+     * Атрибуты счетчика в JMX.
+     */
+    public interface CounterMXBean {
+        long getCount();
+    }
+
+    /**
+     * Таймер с гистограммой задержек.
+     * Корзины логарифмические, по четыре на каждую степень двойки наносекунд,
+     * поэтому перцентили вычисляются с погрешностью не больше 25%.
+     */
+    public static final class Timer implements TimerMXBean {
+        /** Количество бит точности внутри степени двойки */
+        private static final int SUB_BITS = 2;
+        /** Корзин на каждую степень двойки */
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+        /** Количество замеров в каждой корзине */
+        private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+        /** Количество замеров */
+        private final LongAdder count = new LongAdder();
+        /** Сумма замеров в наносекундах */
+        private final LongAdder totalNanos = new LongAdder();
+        /** Наибольший замер в наносекундах */
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Timer() {
+        }
+
+        /**
+         * Записывает замер.
+         *
+         * @param nanos длительность в наносекундах
+         */
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(bucketIndex(value));
+            count.increment();
+            totalNanos.add(value);
+            maxNanos.accumulate(value);
+        }
+
+        /**
+         * Записывает время, прошедшее с момента начала.
+         *
+         * @param startNanos момент начала по {@link System#nanoTime()}
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        private static int bucketIndex(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) ((value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+            return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+        }
+
+        private static long bucketUpperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = (index >>> SUB_BITS) + SUB_BITS - 1;
+            int sub = index & (SUB_BUCKETS - 1);
+            long width = 1L << (exponent - SUB_BITS);
+            return (1L << exponent) + (sub + 1) * width - 1;
+        }
+
+        /**
+         * Оценивает перцентиль по гистограмме.
+         *
+         * @param percentile перцентиль от 0 до 1
+         * @return верхняя граница корзины перцентиля в наносекундах, не больше наибольшего замера
+         */
+        public long percentileNanos(double percentile) {
+            long total = 0;
+            long[] snapshot = new long[buckets.length()];
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile * total));
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+
+        @Override
+        public long getCount() { return count.sum(); }
+
+        @Override
+        public double getMeanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+        }
+
+        @Override
+        public double getMaxMillis() { return maxNanos.get() / 1e6; }
+
+        @Override
+        public double getP50Millis() { return percentileNanos(0.50) / 1e6; }
+
+        @Override
+        public double getP95Millis() { return percentileNanos(0.95) / 1e6; }
+
+        @Override
+        public double getP99Millis() { return percentileNanos(0.99) / 1e6; }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                    getCount(), getMeanMillis(), getP50Millis(), getP95Millis(), getP99Millis(), getMaxMillis());
+        }
+    }
+
+    /**
+     * Счетчик событий.
+     */
+    public static final class Counter implements CounterMXBean {
+        /** Значение счетчика */
+        private final LongAdder count = new LongAdder();
+
+        private Counter() {
+        }
+
+        /**
+         * Увеличивает счетчик на 1.
+         */
+        public void increment() { count.increment(); }
+
+        @Override
+        public long getCount() { return count.sum(); }
+
+        @Override
+        public String toString() { return String.valueOf(getCount()); }
+    }
+
+    /**
+     * Возвращает таймер, создавая и публикуя его при первом обращении.
+     *
+     * @param name имя метрики, например swapi.request.people.2xx
+     * @return таймер
+     */
+    public static Timer timer(String name) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(name, key -> register("Timer", key, new Timer()));
+        }
+        return timer;
+    }
+
+    /**
+     * Возвращает счетчик, создавая и публикуя его при первом обращении.
+     *
+     * @param name имя метрики, например swapi.error.SwapiNotFoundException
+     * @return счетчик
+     */
+    public static Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, key -> register("Counter", key, new Counter()));
+        }
+        return counter;
+    }
+
+    /**
+     * Возвращает текстовую сводку всех метрик для журнала.
+     *
+     * @return по одной метрике на строку, в алфавитном порядке
+     */
+    public static String summary() {
+        Map<String, Object> all = new TreeMap<>();
+        all.putAll(timers);
+        all.putAll(counters);
+        StringBuilder builder = new StringBuilder();
+        all.forEach((name, metric) -> builder.append(name).append(": ").append(metric).append('\n'));
+        return builder.toString();
+    }
+
+    /**
+     * Публикует метрику в JMX. Ошибка публикации не мешает записи метрики.
+     *
+     * @param type тип метрики в JMX имени
+     * @param name имя метрики
+     * @param metric метрика
+     * @param <M> тип метрики
+     * @return та же метрика
+     */
+    private static <M> M register(String type, String name, M metric) {
+        if (!JMX_ENABLED) {
+            return metric;
+        }
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metric, objectName);
+        } catch (JMException e) {
+            logger.warn("Не удалось опубликовать метрику {} в JMX: {}", name, e.getMessage());
+        }
+        return metric;
+    }
+}
@@ -0,0 +1,307 @@
+package org.Main.UtilityClasses;
+
+import org.Main.HelperClasses.ItemHelperEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Префиксное дерево над нормализованными вариантами имен каталога для нечеткого поиска по мере ввода.
+ * Узлы хранятся в массивах в прямом порядке обхода, поэтому поддерево узла занимает
+ * непрерывный отрезок и пропускается одним переходом.
+ * Дерево неизменяемо и может использоваться из нескольких потоков,
+ * состояние поиска хранится в {@link Matcher}.
+ */
+public class PrefixTrie {
+
+    /**
+     * Узел дерева на время построения.
+     */
+    private static class BuildNode {
+        /** Потомки по символу, в алфавитном порядке */
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+
+        /** Номера записей каталога, вариант имени которых заканчивается в этом узле */
+        private final List<Integer> entries = new ArrayList<>();
+    }
+
+    /** Каталог, по которому построено дерево */
+    private final CatalogIndex catalog;
+
+    /** Символ на ребре от родителя к узлу */
+    private final char[] chars;
+
+    /** Номер родителя, -1 для корня */
+    private final int[] parents;
+
+    /** Глубина узла, равная длине префикса */
+    private final int[] depths;
+
+    /** Номер первого узла после поддерева */
+    private final int[] subtreeEnds;
+
+    /** Начало записей узла в entryIndexes, записи узла i занимают [entryOffsets[i], entryOffsets[i + 1]) */
+    private final int[] entryOffsets;
+
+    /** Номера записей каталога по узлам */
+    private final int[] entryIndexes;
+
+    /**
+     * Строит дерево по всем вариантам имен каталога.
+     *
+     * @param catalog загруженный каталог
+     */
+    public PrefixTrie(CatalogIndex catalog) {
+        this.catalog = catalog;
+
+        BuildNode root = new BuildNode();
+        int nodeCount = 1;
+        int entryCount = 0;
+        char[] variantChars = catalog.getVariantChars();
+        for (int i = 0; i < catalog.size(); i++) {
+            for (int v = 0; v < catalog.getVariantCount(i); v++) {
+                int start = catalog.getVariantStart(i, v);
+                int end = start + catalog.getVariantLength(i, v);
+                BuildNode node = root;
+                for (int c = start; c < end; c++) {
+                    BuildNode child = node.children.get(variantChars[c]);
+                    if (child == null) {
+                        child = new BuildNode();
+                        node.children.put(variantChars[c], child);
+                        nodeCount++;
+                    }
+                    node = child;
+                }
+                if (node.entries.isEmpty() || node.entries.getLast() != i) { // Повтор варианта внутри одной записи
+                    node.entries.add(i);
+                    entryCount++;
+                }
+            }
+        }
+
+        chars = new char[nodeCount];
+        parents = new int[nodeCount];
+        depths = new int[nodeCount];
+        subtreeEnds = new int[nodeCount];
+        entryOffsets = new int[nodeCount + 1];
+        entryIndexes = new int[entryCount];
+        int[] next = {0, 0}; // Следующий номер узла и следующая позиция в entryIndexes
+        flatten(root, '\0', -1, 0, next);
+        entryOffsets[nodeCount] = next[1];
+    }
+
+    /**
+     * Записывает поддерево в массивы в прямом порядке обхода.
+     *
+     * @param node узел
+     * @param edge символ на ребре от родителя
+     * @param parent номер родителя
+     * @param depth глубина узла
+     * @param next следующий номер узла и следующая позиция записи
+     */
+    private void flatten(BuildNode node, char edge, int parent, int depth, int[] next) {
+        int index = next[0]++;
+        chars[index] = edge;
+        parents[index] = parent;
+        depths[index] = depth;
+        entryOffsets[index] = next[1];
+        for (int entry : node.entries) {
+            entryIndexes[next[1]++] = entry;
+        }
+        for (var child : node.children.entrySet()) {
+            flatten(child.getValue(), child.getKey(), index, depth + 1, next);
+        }
+        subtreeEnds[index] = next[0];
+    }
+
+    /**
+     * Возвращает количество узлов дерева.
+     *
+     * @return количество узлов, включая корень
+     */
+    public int size() { return chars.length; }
+
+    /**
+     * Создает сеанс поиска по этому дереву.
+     *
+     * @return новый сеанс без вычисленных строк
+     */
+    public Matcher newMatcher() {
+        return new Matcher();
+    }
+
+    /**
+     * Сеанс поиска по мере ввода.
+     * Для каждого узла хранит строку матрицы Левенштейна между префиксом узла и предыдущим запросом.
+     * Если новый запрос продолжает предыдущий, вычисляются только столбцы добавленных символов,
+     * при изменении запроса строки укорачиваются до общего префикса.
+     * Поддеревья, минимум строки которых больше текущей границы k лучших, не обходятся,
+     * и их строки дополняются позже, когда понадобятся.
+     * Сеанс не потокобезопасен.
+     */
+    public final class Matcher {
+        /** Строки матрицы по узлам: rows[i][j] — расстояние между префиксом узла i и первыми j символами запроса */
+        private final int[][] rows = new int[chars.length][];
+
+        /** Количество вычисленных столбцов строки узла */
+        private final int[] columns = new int[chars.length];
+
+        /** Минимум вычисленных столбцов строки узла */
+        private final int[] rowMins = new int[chars.length];
+
+        /** Запрос, которому соответствуют вычисленные столбцы */
+        private String previousQuery = "";
+
+        private Matcher() {
+        }
+
+        /**
+         * Возвращает дерево, по которому идет поиск.
+         *
+         * @return дерево сеанса
+         */
+        public PrefixTrie getTrie() { return PrefixTrie.this; }
+
+        /**
+         * Находит k записей с наименьшим расстоянием до запроса.
+         * Результат совпадает с линейным поиском: при равном расстоянии побеждает запись, раньше идущая в каталоге.
+         *
+         * @param query нормализованный поисковый запрос
+         * @param k количество записей
+         * @return не более k записей, отсортированных по расстоянию
+         */
+        public List<ItemHelperEntry> findNearest(String query, int k) {
+            if (k <= 0) {
+                return new ArrayList<>();
+            }
+            keepCommonPrefix(query);
+            int m = query.length();
+
+            int[] bestDistances = new int[catalog.size()];
+            Arrays.fill(bestDistances, Integer.MAX_VALUE);
+            // Максимальная куча текущих k лучших записей: {расстояние, номер записи}
+            PriorityQueue<int[]> topK = new PriorityQueue<>(k + 1,
+                    (a, b) -> a[0] != b[0] ? Integer.compare(b[0], a[0]) : Integer.compare(b[1], a[1]));
+
+            int node = 0;
+            while (node < chars.length) {
+                extendRow(node, query);
+                int bound = topK.size() < k ? Integer.MAX_VALUE : topK.peek()[0];
+                if (rowMins[node] > bound) {
+                    node = subtreeEnds[node]; // Никакое продолжение префикса не будет ближе
+                    continue;
+                }
+
+                int distance = rows[node][m];
+                for (int e = entryOffsets[node]; e < entryOffsets[node + 1]; e++) {
+                    int entryIndex = entryIndexes[e];
+                    if (bestDistances[entryIndex] <= distance) {
+                        continue;
+                    }
+                    if (topK.size() == k && !isBetter(distance, entryIndex, topK.peek())) {
+                        continue;
+                    }
+                    if (bestDistances[entryIndex] != Integer.MAX_VALUE) {
+                        topK.removeIf(candidate -> candidate[1] == entryIndex);
+                    }
+                    bestDistances[entryIndex] = distance;
+                    topK.add(new int[]{distance, entryIndex});
+                    if (topK.size() > k) {
+                        bestDistances[topK.poll()[1]] = Integer.MAX_VALUE;
+                    }
+                }
+                node++;
+            }
+
+            List<int[]> found = new ArrayList<>(topK);
+            found.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+            List<ItemHelperEntry> entries = new ArrayList<>(found.size());
+            for (int[] candidate : found) {
+                entries.add(catalog.toEntry(candidate[1], candidate[0]));
+            }
+            return entries;
+        }
+
+        /**
+         * Отбрасывает столбцы, вычисленные для символов, которыми новый запрос отличается от предыдущего.
+         *
+         * @param query новый запрос
+         */
+        private void keepCommonPrefix(String query) {
+            int common = 0;
+            int limit = Math.min(query.length(), previousQuery.length());
+            while (common < limit && query.charAt(common) == previousQuery.charAt(common)) {
+                common++;
+            }
+            if (common < previousQuery.length()) {
+                int keep = common + 1; // Столбец 0 не зависит от запроса
+                for (int node = 0; node < chars.length; node++) {
+                    if (columns[node] > keep) {
+                        columns[node] = keep;
+                        int min = rows[node][0];
+                        for (int j = 1; j < keep; j++) {
+                            min = Math.min(min, rows[node][j]);
+                        }
+                        rowMins[node] = min;
+                    }
+                }
+            }
+            previousQuery = query;
+        }
+
+        /**
+         * Дополняет строку узла до всех столбцов запроса.
+         * Строка родителя к этому моменту уже дополнена, потому что родитель обходится раньше потомков.
+         *
+         * @param node номер узла
+         * @param query запрос
+         */
+        private void extendRow(int node, String query) {
+            int width = query.length() + 1;
+            int from = columns[node];
+            if (from >= width) {
+                return;
+            }
+            int[] row = rows[node];
+            if (row == null || row.length < width) {
+                row = row == null ? new int[Math.max(width, 8)] : Arrays.copyOf(row, Math.max(width, row.length * 2));
+                rows[node] = row;
+            }
+
+            int parent = parents[node];
+            int[] parentRow = parent < 0 ? null : rows[parent];
+            char c = chars[node];
+            int min = from == 0 ? Integer.MAX_VALUE : rowMins[node];
+            for (int j = from; j < width; j++) {
+                int value;
+                if (parentRow == null) {
+                    value = j;
+                } else if (j == 0) {
+                    value = depths[node];
+                } else {
+                    int substitution = parentRow[j - 1] + (c == query.charAt(j - 1) ? 0 : 1);
+                    value = Math.min(substitution, Math.min(row[j - 1] + 1, parentRow[j] + 1));
+                }
+                row[j] = value;
+                min = Math.min(min, value);
+            }
+            columns[node] = width;
+            rowMins[node] = min;
+        }
+    }
+
+    /**
+     * Проверяет, лучше ли кандидат текущей худшей записи в куче.
+     *
+     * @param distance расстояние кандидата
+     * @param entryIndex номер записи кандидата
+     * @param worst худшая запись в куче
+     * @return true если кандидат должен занять место худшей записи
+     */
+    private static boolean isBetter(int distance, int entryIndex, int[] worst) {
+        return distance < worst[0] || (distance == worst[0] && entryIndex < worst[1]);
+    }
+}
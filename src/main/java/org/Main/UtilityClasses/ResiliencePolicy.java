@@ -0,0 +1,89 @@
+package org.Main.UtilityClasses;
+
+import java.time.Duration;
+
+/**
+ * Настройки устойчивости запросов к SWAPI: повторы, дублирующие запросы и автоматический выключатель.
+ *
+ * @param requestTimeout таймаут одного HTTP запроса
+ * @param maxRetries максимальное количество повторов после первой попытки
+ * @param baseBackoff начальная задержка перед повтором
+ * @param maxBackoff максимальная задержка перед повтором
+ * @param hedgingEnabled отправлять ли дублирующий запрос при долгом ответе
+ * @param hedgePercentile перцентиль задержки ответа (0..1), после которого отправляется дубль
+ * @param minHedgeDelay минимальная задержка перед отправкой дубля
+ * @param circuitFailureThreshold количество ошибок подряд, после которого выключатель размыкается
+ * @param circuitOpenDuration время, на которое выключатель размыкается
+ */
+public record ResiliencePolicy(
+        Duration requestTimeout,
+        int maxRetries,
+        Duration baseBackoff,
+        Duration maxBackoff,
+        boolean hedgingEnabled,
+        double hedgePercentile,
+        Duration minHedgeDelay,
+        int circuitFailureThreshold,
+        Duration circuitOpenDuration
+) {
+
+    /**
+     * Возвращает настройки по умолчанию.
+     *
+     * @return настройки по умолчанию
+     */
+    public static ResiliencePolicy defaults() {
+        return new ResiliencePolicy(
+                Duration.ofSeconds(10),
+                3,
+                Duration.ofMillis(200),
+                Duration.ofSeconds(5),
+                true,
+                0.95,
+                Duration.ofMillis(300),
+                5,
+                Duration.ofSeconds(30)
+        );
+    }
+
+    /**
+     * Возвращает настройки без повторов, дублей и с выключателем, который не размыкается.
+     * Соответствует поведению клиента без слоя устойчивости.
+     *
+     * @return настройки без устойчивости
+     */
+    public static ResiliencePolicy none() {
+        return new ResiliencePolicy(
+                Duration.ofSeconds(10),
+                0,
+                Duration.ZERO,
+                Duration.ZERO,
+                false,
+                1.0,
+                Duration.ZERO,
+                Integer.MAX_VALUE,
+                Duration.ZERO
+        );
+    }
+
+    /**
+     * Возвращает настройки по умолчанию, переопределенные системными свойствами
+     * swapi.timeoutMs, swapi.retries, swapi.hedging и swapi.circuit.failures.
+     *
+     * @return настройки из системных свойств
+     */
+    public static ResiliencePolicy fromSystemProperties() {
+        ResiliencePolicy defaults = defaults();
+        return new ResiliencePolicy(
+                Duration.ofMillis(Long.getLong("swapi.timeoutMs", defaults.requestTimeout().toMillis())),
+                Integer.getInteger("swapi.retries", defaults.maxRetries()),
+                defaults.baseBackoff(),
+                defaults.maxBackoff(),
+                Boolean.parseBoolean(System.getProperty("swapi.hedging", String.valueOf(defaults.hedgingEnabled()))),
+                defaults.hedgePercentile(),
+                defaults.minHedgeDelay(),
+                Integer.getInteger("swapi.circuit.failures", defaults.circuitFailureThreshold()),
+                defaults.circuitOpenDuration()
+        );
+    }
+}
@@ -0,0 +1,300 @@
+package org.Main.UtilityClasses;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет асинхронные запросы к SWAPI по правилам {@link ResiliencePolicy}.
+ * Повторяет запрос с экспоненциальной задержкой и случайным разбросом при ошибках сервера
+ * и сети, отправляет дублирующий запрос при долгом ответе и не пропускает запросы,
+ * пока разомкнут {@link CircuitBreaker}.
+ */
+public class ResilientCaller {
+    /** Логгер для записи событий устойчивости */
+    private static final Logger logger = LogManager.getLogger(ResilientCaller.class);
+
+    /** Количество последних задержек для расчета перцентиля */
+    private static final int LATENCY_WINDOW = 128;
+
+    /** Минимальное количество замеров, после которого используется перцентиль */
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    /** Количество повторов */
+    private static final Metrics.Counter RETRIES = Metrics.counter("swapi.retries");
+
+    /** Количество дублирующих запросов */
+    private static final Metrics.Counter HEDGES = Metrics.counter("swapi.hedges");
+
+    /** Настройки устойчивости */
+    private final ResiliencePolicy policy;
+
+    /** Выключатель запросов */
+    private final CircuitBreaker circuitBreaker;
+
+    /** Кольцевой буфер последних задержек успешных ответов в наносекундах */
+    private final long[] latencies = new long[LATENCY_WINDOW];
+
+    /** Количество записанных задержек */
+    private long latencyCount;
+
+    /**
+     * Создает исполнителя запросов с заданными настройками.
+     *
+     * @param policy настройки устойчивости
+     */
+    public ResilientCaller(ResiliencePolicy policy) {
+        this.policy = policy;
+        this.circuitBreaker = new CircuitBreaker(policy.circuitFailureThreshold(), policy.circuitOpenDuration());
+    }
+
+    /**
+     * Возвращает настройки устойчивости.
+     *
+     * @return настройки
+     */
+    public ResiliencePolicy getPolicy() { return policy; }
+
+    /**
+     * Возвращает выключатель запросов.
+     *
+     * @return выключатель
+     */
+    public CircuitBreaker getCircuitBreaker() { return circuitBreaker; }
+
+    /**
+     * Выполняет запрос с повторами, дублированием и проверкой выключателя.
+     *
+     * @param endpoint конечная точка API для сообщений
+     * @param call функция, запускающая одну попытку запроса
+     * @param <T> тип результата
+     * @return future с результатом первой успешной попытки либо последней ошибкой
+     */
+    public <T> CompletableFuture<T> execute(String endpoint, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(endpoint, call, 0, result);
+        return result;
+    }
+
+    /**
+     * Выполняет одну попытку и при необходимости планирует следующую.
+     *
+     * @param endpoint конечная точка API
+     * @param call функция, запускающая одну попытку запроса
+     * @param attemptNumber номер попытки, начиная с 0
+     * @param result итоговый future
+     * @param <T> тип результата
+     */
+    private <T> void attempt(String endpoint, Supplier<CompletableFuture<T>> call, int attemptNumber,
+                             CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return; // Отменено вызывающим
+        }
+        if (!circuitBreaker.allowRequest()) {
+            fail(result, new SwapiClient.SwapiCircuitOpenException(
+                    "SWAPI временно недоступен, запрос отклонен: " + endpoint));
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        hedged(endpoint, call).whenComplete((value, error) -> {
+            if (error == null) {
+                circuitBreaker.recordSuccess();
+                recordLatency(System.nanoTime() - startNanos);
+                result.complete(value);
+                return;
+            }
+
+            SwapiClient.SwapiException exception = SwapiClient.unwrap(error);
+            if (!isRetryable(exception)) {
+                // Сервер ответил осмысленно, значит он доступен
+                circuitBreaker.recordSuccess();
+                fail(result, exception);
+                return;
+            }
+
+            circuitBreaker.recordFailure();
+            if (attemptNumber >= policy.maxRetries()) {
+                fail(result, exception);
+                return;
+            }
+
+            RETRIES.increment();
+            long delayMillis = backoffMillis(attemptNumber);
+            logger.warn("Попытка {} для {} не удалась ({}), повтор через {} мс",
+                    attemptNumber + 1, endpoint, exception.getMessage(), delayMillis);
+            CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS)
+                    .execute(() -> attempt(endpoint, call, attemptNumber + 1, result));
+        });
+    }
+
+    /**
+     * Запускает попытку и, если она не завершилась за порог перцентиля задержки,
+     * дублирующую попытку. Побеждает первый успешный ответ, проигравшая попытка отменяется.
+     * Ошибкой результат завершается, только когда не удались все отправленные попытки.
+     * Дублирующая попытка, как и основная, отправляется только с разрешения выключателя.
+     *
+     * @param endpoint конечная точка API
+     * @param call функция, запускающая одну попытку запроса
+     * @param <T> тип результата
+     * @return future с результатом первой успешной попытки
+     */
+    private <T> CompletableFuture<T> hedged(String endpoint, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> primary = call.get();
+        long hedgeDelayMillis = hedgeDelayMillis();
+        if (hedgeDelayMillis < 0) {
+            return primary;
+        }
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<T>> hedge = new AtomicReference<>();
+        // Количество попыток, которые еще могут завершиться успешно
+        AtomicInteger outstanding = new AtomicInteger(1);
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                if (winner.complete(value)) {
+                    cancel(hedge.get());
+                }
+            } else if (outstanding.decrementAndGet() == 0) {
+                winner.completeExceptionally(error);
+            }
+        });
+
+        CompletableFuture.delayedExecutor(hedgeDelayMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (primary.isDone()) {
+                return;
+            }
+            if (!circuitBreaker.allowRequest()) {
+                logger.debug("Выключатель разомкнут, дублирующий запрос для {} не отправлен", endpoint);
+                return;
+            }
+            // Дубль учитывается до отправки: ошибка основной попытки не завершит результат, пока дубль в пути
+            if (outstanding.getAndUpdate(count -> count == 0 ? 0 : count + 1) == 0) {
+                return;
+            }
+            HEDGES.increment();
+            logger.info("Ответ для {} задерживается дольше {} мс, отправлен дублирующий запрос", endpoint, hedgeDelayMillis);
+            CompletableFuture<T> duplicate = call.get();
+            hedge.set(duplicate);
+            if (winner.isDone()) {
+                duplicate.cancel(true); // Основная попытка успела победить до публикации дубля
+            }
+            duplicate.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (winner.complete(value)) {
+                        primary.cancel(true);
+                    }
+                } else if (outstanding.decrementAndGet() == 0) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        });
+        return winner;
+    }
+
+    /**
+     * Связывает отмену зависимого этапа с исходной операцией.
+     * {@link CompletableFuture#cancel} не распространяется вверх по цепочке, поэтому без этого
+     * отмена проигравшей попытки оставила бы ее HTTP обмен выполняться.
+     *
+     * @param source исходная операция, например future {@code HttpClient.sendAsync}
+     * @param stage зависимый этап, который возвращается вызывающему
+     * @param <T> тип результата
+     * @return тот же зависимый этап
+     */
+    public static <T> CompletableFuture<T> cancelSourceOnCancel(CompletableFuture<?> source, CompletableFuture<T> stage) {
+        stage.whenComplete((value, error) -> {
+            if (stage.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return stage;
+    }
+
+    /**
+     * Отменяет попытку, если она была отправлена.
+     *
+     * @param attempt попытка либо null
+     */
+    private static void cancel(CompletableFuture<?> attempt) {
+        if (attempt != null) {
+            attempt.cancel(true);
+        }
+    }
+
+    /**
+     * Завершает запрос ошибкой и учитывает ее в метриках по типу ошибки.
+     *
+     * @param result итоговый future
+     * @param exception ошибка
+     */
+    private static void fail(CompletableFuture<?> result, SwapiClient.SwapiException exception) {
+        Metrics.counter("swapi.error." + exception.getClass().getSimpleName()).increment();
+        result.completeExceptionally(exception);
+    }
+
+    /**
+     * Проверяет, имеет ли смысл повторять запрос после ошибки.
+     *
+     * @param exception ошибка попытки
+     * @return true для ошибок сервера и сети
+     */
+    private static boolean isRetryable(SwapiClient.SwapiException exception) {
+        return exception instanceof SwapiClient.SwapiServerException
+                || exception instanceof SwapiClient.SwapiTransportException;
+    }
+
+    /**
+     * Вычисляет задержку перед повтором: экспоненциальный рост с полным случайным разбросом.
+     *
+     * @param attemptNumber номер неудачной попытки, начиная с 0
+     * @return задержка в миллисекундах
+     */
+    private long backoffMillis(int attemptNumber) {
+        long base = policy.baseBackoff().toMillis();
+        long max = policy.maxBackoff().toMillis();
+        long ceiling = Math.min(max, base << Math.min(attemptNumber, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Записывает задержку успешного ответа.
+     *
+     * @param latencyNanos задержка в наносекундах
+     */
+    private synchronized void recordLatency(long latencyNanos) {
+        latencies[(int) (latencyCount % LATENCY_WINDOW)] = latencyNanos;
+        latencyCount++;
+    }
+
+    /**
+     * Вычисляет задержку перед дублирующим запросом.
+     *
+     * @return задержка в миллисекундах либо -1, если дублирование выключено
+     */
+    private long hedgeDelayMillis() {
+        if (!policy.hedgingEnabled()) {
+            return -1;
+        }
+        long minDelay = policy.minHedgeDelay().toMillis();
+        long[] samples;
+        synchronized (this) {
+            if (latencyCount < MIN_LATENCY_SAMPLES) {
+                // Пока замеров мало, дубль отправляется только при явно долгом ответе
+                return Math.max(minDelay, policy.requestTimeout().toMillis() / 2);
+            }
+            samples = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_WINDOW));
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.min(samples.length - 1, Math.ceil(policy.hedgePercentile() * samples.length) - 1);
+        long percentileMillis = TimeUnit.NANOSECONDS.toMillis(samples[Math.max(0, index)]);
+        return Math.max(minDelay, percentileMillis);
+    }
+}
@@ -0,0 +1,297 @@
+package org.Main.UtilityClasses;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Постоянное локальное хранилище полученных данных SWAPI.
+ * Данные дописываются в конец файла данных, а положение каждой записи — в файл индекса.
+ * Чтение выполняется через отображение файла данных в память.
+ * Более поздняя запись с тем же ключом заменяет предыдущую.
+ * Записывать в хранилище может только один процесс: он держит блокировку файла данных,
+ * пока хранилище открыто. Остальные процессы открывают хранилище только для чтения.
+ */
+public class ResponseStore implements AutoCloseable {
+    /** Логгер для записи событий хранилища */
+    private static final Logger logger = LogManager.getLogger(ResponseStore.class);
+
+    /** Имя файла данных */
+    private static final String DATA_FILE = "swapi-data.bin";
+
+    /** Имя файла индекса */
+    private static final String INDEX_FILE = "swapi-index.bin";
+
+    /** Максимальный размер файла данных: записи читаются из отображения по смещению типа int */
+    private static final long MAX_DATA_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * Положение записи в файле данных.
+     *
+     * @param offset смещение от начала файла
+     * @param length длина записи в байтах
+     */
+    private record Location(long offset, int length) {}
+
+    /** Положение последней версии каждой записи */
+    private final Map<String, Location> index = new HashMap<>();
+
+    /** Канал файла данных */
+    private final FileChannel dataChannel;
+
+    /** Блокировка файла данных либо null, если хранилище открыто только для чтения */
+    private final FileLock lock;
+
+    /** Поток записи индекса либо null, если хранилище открыто только для чтения */
+    private final DataOutputStream indexOutput;
+
+    /** Отображение файла данных в память, обновляется при росте файла */
+    private MappedByteBuffer mappedData;
+
+    /** Текущий размер файла данных */
+    private long dataSize;
+
+    /**
+     * Открывает хранилище в каталоге, создавая файлы при необходимости.
+     * Если хранилище уже открыто другим процессом, оно открывается только для чтения
+     * с записями, сохраненными на момент открытия.
+     *
+     * @param directory каталог хранилища
+     * @throws IOException если файлы не удалось открыть
+     */
+    public ResponseStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path dataPath = directory.resolve(DATA_FILE);
+        Path indexPath = directory.resolve(INDEX_FILE);
+
+        this.dataChannel = FileChannel.open(dataPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.lock = tryLock(dataChannel);
+        this.dataSize = dataChannel.size();
+        if (dataSize > MAX_DATA_SIZE) {
+            dataChannel.close();
+            throw new IOException("Файл данных " + dataPath + " больше " + MAX_DATA_SIZE
+                    + " байт и не может быть отображен в память");
+        }
+
+        if (lock == null) {
+            // Другой процесс дописывает файлы: читаем только уже записанные данные и ничего не обрезаем
+            readIndex(indexPath);
+            this.indexOutput = null;
+            logger.warn("Хранилище {} уже открыто для записи, открыто только для чтения: {} записей",
+                    directory, index.size());
+            return;
+        }
+
+        long validIndexLength = readIndex(indexPath);
+        if (Files.exists(indexPath) && Files.size(indexPath) > validIndexLength) {
+            // Обрезаем недописанную при аварийном завершении запись индекса
+            logger.warn("Индекс хранилища {} поврежден, обрезан до {} байт", indexPath, validIndexLength);
+            try (FileChannel indexChannel = FileChannel.open(indexPath, StandardOpenOption.WRITE)) {
+                indexChannel.truncate(validIndexLength);
+            }
+        }
+
+        this.indexOutput = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(indexPath, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        logger.info("Хранилище {} открыто: {} записей", directory, index.size());
+    }
+
+    /**
+     * Пытается захватить блокировку файла данных.
+     *
+     * @param channel канал файла данных
+     * @return блокировка либо null, если файл заблокирован другим процессом или другим хранилищем
+     * @throws IOException при ошибке блокировки
+     */
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null; // Хранилище на этом каталоге уже открыто в этом же процессе
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Читает файл индекса в память.
+     *
+     * @param indexPath путь к файлу индекса
+     * @return длина корректно прочитанной части индекса в байтах
+     * @throws IOException при ошибке чтения
+     */
+    private long readIndex(Path indexPath) throws IOException {
+        if (!Files.exists(indexPath)) {
+            return 0;
+        }
+
+        long validLength = 0;
+        try (InputStream fileInput = Files.newInputStream(indexPath);
+             CountingInputStream countingInput = new CountingInputStream(new BufferedInputStream(fileInput));
+             DataInputStream input = new DataInputStream(countingInput)) {
+            while (true) {
+                String key = input.readUTF();
+                long offset = input.readLong();
+                int length = input.readInt();
+                if (offset < 0 || length < 0 || offset + length > dataSize) {
+                    break; // Данные записи не были дописаны
+                }
+                index.put(key, new Location(offset, length));
+                validLength = countingInput.count;
+            }
+        } catch (EOFException e) {
+            // Конец индекса
+        }
+        return validLength;
+    }
+
+    /**
+     * Возвращает данные записи.
+     *
+     * @param key ключ записи, например "people/1"
+     * @return данные записи либо null, если записи нет
+     * @throws IOException при ошибке чтения файла данных
+     */
+    public synchronized byte[] get(String key) throws IOException {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        if (mappedData == null || location.offset() + location.length() > mappedData.capacity()) {
+            mappedData = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataSize);
+        }
+        byte[] data = new byte[location.length()];
+        mappedData.get(Math.toIntExact(location.offset()), data);
+        return data;
+    }
+
+    /**
+     * Проверяет наличие записи.
+     *
+     * @param key ключ записи
+     * @return true если запись есть в хранилище
+     */
+    public synchronized boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Проверяет, открыто ли хранилище только для чтения.
+     *
+     * @return true если файлы заблокированы другим процессом и запись пропускается
+     */
+    public boolean isReadOnly() {
+        return lock == null;
+    }
+
+    /**
+     * Дописывает запись в хранилище.
+     * В хранилище, открытом только для чтения, запись пропускается.
+     *
+     * @param key ключ записи, например "people/1"
+     * @param data данные записи
+     * @throws IOException при ошибке записи
+     */
+    public synchronized void put(String key, byte[] data) throws IOException {
+        if (isReadOnly()) {
+            logger.debug("Хранилище открыто только для чтения, запись {} пропущена", key);
+            return;
+        }
+        if (dataSize + data.length > MAX_DATA_SIZE) {
+            throw new IOException("Превышен максимальный размер хранилища: " + dataSize + " + " + data.length
+                    + " байт больше " + MAX_DATA_SIZE);
+        }
+
+        long offset = dataSize;
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            dataChannel.write(buffer, offset + buffer.position());
+        }
+        dataSize += data.length;
+
+        // Индекс пишется после данных, поэтому запись индекса всегда указывает на полные данные
+        indexOutput.writeUTF(key);
+        indexOutput.writeLong(offset);
+        indexOutput.writeInt(data.length);
+        indexOutput.flush();
+
+        index.put(key, new Location(offset, data.length));
+    }
+
+    /**
+     * Возвращает количество записей.
+     *
+     * @return количество уникальных ключей
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Закрывает файлы хранилища.
+     *
+     * @throws IOException при ошибке закрытия
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        mappedData = null;
+        try {
+            if (indexOutput != null) {
+                indexOutput.close();
+            }
+        } finally {
+            // Закрытие канала снимает блокировку
+            dataChannel.close();
+        }
+    }
+
+    /**
+     * Поток, подсчитывающий количество прочитанных байт.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        /** Количество прочитанных байт */
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.Main.UtilityClasses;
+
+/**
+ * Категория поиска: каталог имен и соответствующий ему ресурс SWAPI.
+ */
+public enum SearchCategory {
+    PEOPLE("people", CatalogIndex.PEOPLE_CATALOG, SwapiClient.ResourceType.PEOPLE),
+    PLANETS("planets", CatalogIndex.PLANETS_CATALOG, SwapiClient.ResourceType.PLANETS),
+    STARSHIPS("starships", CatalogIndex.STARSHIPS_CATALOG, SwapiClient.ResourceType.STARSHIPS);
+
+    /** Имя категории во входных и выходных данных */
+    private final String key;
+    /** Путь к каталогу поиска */
+    private final String catalogPath;
+    /** Тип ресурса SWAPI */
+    private final SwapiClient.ResourceType<?> type;
+
+    SearchCategory(String key, String catalogPath, SwapiClient.ResourceType<?> type) {
+        this.key = key;
+        this.catalogPath = catalogPath;
+        this.type = type;
+    }
+
+    /**
+     * Находит категорию по имени без учета регистра.
+     *
+     * @param key имя категории
+     * @return категория
+     * @throws IllegalArgumentException если категории с таким именем нет
+     */
+    public static SearchCategory of(String key) {
+        for (SearchCategory category : values()) {
+            if (category.key.equalsIgnoreCase(key.trim())) {
+                return category;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестная категория: " + key);
+    }
+
+    /**
+     * Возвращает имя категории.
+     *
+     * @return имя категории
+     */
+    public String getKey() { return key; }
+
+    /**
+     * Возвращает путь к каталогу поиска.
+     *
+     * @return путь к JSON файлу каталога
+     */
+    public String getCatalogPath() { return catalogPath; }
+
+    /**
+     * Возвращает тип ресурса SWAPI.
+     *
+     * @return тип ресурса
+     */
+    public SwapiClient.ResourceType<?> getType() { return type; }
+}
@@ -0,0 +1,365 @@
+package org.Main.UtilityClasses;
+
+import org.Main.HelperClasses.ItemHelperEntry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Поиск сразу по нескольким категориям.
+ * Каталоги делятся на отрезки, которые оцениваются параллельно в {@link ForkJoinPool},
+ * а частичные результаты сливаются попарно. Отрезки обмениваются текущей границей k-й лучшей записи,
+ * поэтому найденные в одном отрезке близкие записи ускоряют отсечение в остальных.
+ * Результат совпадает с {@link SearchTools#searchTopEntries(String, String, int)} по каждой категории.
+ */
+public class SearchEngine {
+    /** Время поиска по категориям */
+    private static final Metrics.Timer SEARCH_TIMER = Metrics.timer("search.engine");
+
+    /** Порядок кандидатов: расстояние, затем категория, затем порядок в каталоге */
+    private static final Comparator<Candidate> ORDER = Comparator.comparingInt(Candidate::distance)
+            .thenComparingInt(candidate -> candidate.category().ordinal())
+            .thenComparingInt(Candidate::entryIndex);
+
+    /** Сдвиг расстояния в ключе порядка, ниже лежат категория и номер записи */
+    private static final int DISTANCE_SHIFT = 40;
+
+    /** Ключ-граница, пока в группе не найдено k записей */
+    static final long NO_BOUND = Long.MAX_VALUE;
+
+    /**
+     * Запись общего рейтинга.
+     *
+     * @param category категория записи
+     * @param entry запись с расстоянием
+     */
+    public record Hit(SearchCategory category, ItemHelperEntry entry) {}
+
+    /**
+     * Кандидат в лучшие записи.
+     *
+     * @param distance расстояние Левенштейна
+     * @param category категория
+     * @param catalog каталог категории
+     * @param entryIndex номер записи в каталоге
+     */
+    private record Candidate(int distance, SearchCategory category, CatalogIndex catalog, int entryIndex) {
+        private ItemHelperEntry toEntry() {
+            return catalog.toEntry(entryIndex, distance);
+        }
+
+        /**
+         * Упаковывает положение кандидата в {@link #ORDER} в одно число.
+         *
+         * @return ключ, меньший у лучшего кандидата
+         */
+        private long key() {
+            return SearchEngine.key(distance, category, entryIndex);
+        }
+    }
+
+    /**
+     * Упаковывает положение записи в {@link #ORDER} в одно число:
+     * расстояние в старших битах, ниже категория и номер записи.
+     *
+     * @param distance расстояние Левенштейна
+     * @param category категория
+     * @param entryIndex номер записи
+     * @return ключ, меньший у лучшей записи
+     */
+    static long key(int distance, SearchCategory category, int entryIndex) {
+        return ((long) distance << DISTANCE_SHIFT) | position(category, entryIndex);
+    }
+
+    /**
+     * Упаковывает категорию и номер записи, порядок которых решает при равном расстоянии.
+     *
+     * @param category категория
+     * @param entryIndex номер записи
+     * @return младшая часть ключа порядка
+     */
+    static long position(SearchCategory category, int entryIndex) {
+        return ((long) category.ordinal() << 32) | entryIndex;
+    }
+
+    /**
+     * Вычисляет наибольшее расстояние, при котором запись еще лучше k-й лучшей.
+     * При равном расстоянии запись лучше, только если идет раньше по категории и порядку в каталоге.
+     *
+     * @param bound ключ порядка k-й лучшей записи или {@link #NO_BOUND}
+     * @param position категория и номер оцениваемой записи
+     * @return ограничение расстояния
+     */
+    static int limit(long bound, long position) {
+        if (bound == NO_BOUND) {
+            return Integer.MAX_VALUE - 1;
+        }
+        int distance = (int) (bound >>> DISTANCE_SHIFT);
+        long boundPosition = bound & ((1L << DISTANCE_SHIFT) - 1);
+        return position < boundPosition ? distance : distance - 1;
+    }
+
+    /**
+     * Отрезок каталога для оценки одной задачей.
+     *
+     * @param category категория
+     * @param catalog каталог категории
+     * @param from первая запись
+     * @param to запись после последней
+     */
+    private record Partition(SearchCategory category, CatalogIndex catalog, int from, int to) {}
+
+    /** Пул задач поиска */
+    private final ForkJoinPool pool;
+
+    /** Количество записей в отрезке */
+    private final int partitionSize;
+
+    /**
+     * Создает поиск в общем пуле, размер отрезка задается свойством swapi.search.partitionSize.
+     */
+    public SearchEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Создает поиск в заданном пуле, размер отрезка задается свойством swapi.search.partitionSize.
+     *
+     * @param pool пул задач поиска
+     */
+    public SearchEngine(ForkJoinPool pool) {
+        this(pool, Integer.getInteger("swapi.search.partitionSize", 2048));
+    }
+
+    /**
+     * Создает поиск в заданном пуле.
+     *
+     * @param pool пул задач поиска
+     * @param partitionSize количество записей в отрезке
+     */
+    public SearchEngine(ForkJoinPool pool, int partitionSize) {
+        if (partitionSize <= 0) {
+            throw new IllegalArgumentException("Размер отрезка должен быть положительным: " + partitionSize);
+        }
+        this.pool = pool;
+        this.partitionSize = partitionSize;
+    }
+
+    /**
+     * Ищет k ближайших записей в каждой категории.
+     *
+     * @param searchInput поисковый запрос
+     * @param categories категории поиска
+     * @param k количество записей в каждой категории
+     * @return записи по категориям в порядке перечисления категорий, отсортированные по расстоянию
+     * @throws IOException если каталог не найден или поврежден
+     */
+    public Map<SearchCategory, List<ItemHelperEntry>> searchByCategory(String searchInput,
+                                                                       Collection<SearchCategory> categories,
+                                                                       int k) throws IOException {
+        Map<SearchCategory, List<ItemHelperEntry>> results = new EnumMap<>(SearchCategory.class);
+        for (SearchCategory category : categories) {
+            results.put(category, new ArrayList<>());
+        }
+        for (Candidate candidate : search(searchInput, categories, k, false)) {
+            results.get(candidate.category()).add(candidate.toEntry());
+        }
+        return results;
+    }
+
+    /**
+     * Ищет k ближайших записей среди всех категорий вместе.
+     * При равном расстоянии раньше идет категория, раньше объявленная в {@link SearchCategory}.
+     *
+     * @param searchInput поисковый запрос
+     * @param categories категории поиска
+     * @param k количество записей
+     * @return общий рейтинг, отсортированный по расстоянию
+     * @throws IOException если каталог не найден или поврежден
+     */
+    public List<Hit> searchMerged(String searchInput, Collection<SearchCategory> categories, int k) throws IOException {
+        List<Hit> hits = new ArrayList<>();
+        for (Candidate candidate : search(searchInput, categories, k, true)) {
+            hits.add(new Hit(candidate.category(), candidate.toEntry()));
+        }
+        return hits;
+    }
+
+    /**
+     * Делит каталоги на отрезки и оценивает их в пуле.
+     *
+     * @param searchInput поисковый запрос
+     * @param categories категории поиска
+     * @param k количество записей в группе
+     * @param merged одна общая группа вместо группы на категорию
+     * @return отсортированные кандидаты, не более k в каждой группе
+     * @throws IOException если каталог не найден или поврежден
+     */
+    private List<Candidate> search(String searchInput, Collection<SearchCategory> categories, int k,
+                                   boolean merged) throws IOException {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        String query = CatalogIndex.normalize(searchInput);
+
+        // Каталоги загружаются до запуска задач, чтобы ошибка чтения не попала в пул
+        EnumSet<SearchCategory> distinct = EnumSet.noneOf(SearchCategory.class);
+        distinct.addAll(categories);
+        List<Partition> partitions = new ArrayList<>();
+        int candidates = 0;
+        for (SearchCategory category : distinct) {
+            CatalogIndex catalog = CatalogIndex.get(category.getCatalogPath());
+            candidates += catalog.size();
+            for (int from = 0; from < catalog.size(); from += partitionSize) {
+                partitions.add(new Partition(category, catalog, from, Math.min(catalog.size(), from + partitionSize)));
+            }
+        }
+
+        FlightEvents.SearchEvent event = new FlightEvents.SearchEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        int groups = merged ? 1 : SearchCategory.values().length;
+        AtomicLongArray bounds = new AtomicLongArray(groups);
+        AtomicReferenceArray<List<Candidate>> tops = new AtomicReferenceArray<>(groups);
+        for (int i = 0; i < groups; i++) {
+            bounds.set(i, NO_BOUND);
+            tops.set(i, List.of());
+        }
+        List<Candidate> found = partitions.isEmpty()
+                ? new ArrayList<>()
+                : pool.invoke(new SearchTask(partitions, 0, partitions.size(), query, k, merged, bounds, tops));
+        SEARCH_TIMER.recordSince(startNanos);
+        if (event.shouldCommit()) {
+            event.complete(merged ? "merged" : "engine", distinct.toString(), searchInput, candidates, found.size());
+        }
+        return found;
+    }
+
+    /**
+     * Задача оценки отрезков [from, to): делится пополам, пока не останется один отрезок.
+     */
+    private static final class SearchTask extends RecursiveTask<List<Candidate>> {
+        private final List<Partition> partitions;
+        private final int from;
+        private final int to;
+        private final String query;
+        private final int k;
+        private final boolean merged;
+        /** Общая граница по группам: ключ порядка k-й лучшей записи среди уже оцененных отрезков */
+        private final AtomicLongArray bounds;
+        /** Лучшие записи уже оцененных отрезков по группам, из них вычисляется граница */
+        private final AtomicReferenceArray<List<Candidate>> tops;
+
+        private SearchTask(List<Partition> partitions, int from, int to, String query, int k, boolean merged,
+                           AtomicLongArray bounds, AtomicReferenceArray<List<Candidate>> tops) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.query = query;
+            this.k = k;
+            this.merged = merged;
+            this.bounds = bounds;
+            this.tops = tops;
+        }
+
+        @Override
+        protected List<Candidate> compute() {
+            if (to - from == 1) {
+                return scan(partitions.get(from));
+            }
+            int middle = (from + to) >>> 1;
+            SearchTask left = new SearchTask(partitions, from, middle, query, k, merged, bounds, tops);
+            SearchTask right = new SearchTask(partitions, middle, to, query, k, merged, bounds, tops);
+            // Левая половина считается в этом потоке: при нехватке потоков отрезки идут по порядку каталога,
+            // и граница от ранних записей отсекает поздние строго
+            right.fork();
+            List<Candidate> leftResult = left.compute();
+            return mergeTop(leftResult, right.join());
+        }
+
+        /**
+         * Оценивает один отрезок, держа k лучших записей отрезка.
+         *
+         * @param partition отрезок каталога
+         * @return отсортированные лучшие записи отрезка
+         */
+        private List<Candidate> scan(Partition partition) {
+            CatalogIndex catalog = partition.catalog();
+            int group = merged ? 0 : partition.category().ordinal();
+            List<Candidate> best = new ArrayList<>(k + 1);
+
+            long localBound = NO_BOUND;
+            for (int i = partition.from(); i < partition.to(); i++) {
+                int limit = limit(Math.min(localBound, bounds.get(group)), position(partition.category(), i));
+                int lowestNameDistance = Integer.MAX_VALUE;
+                for (int v = 0; v < catalog.getVariantCount(i) && limit >= 0; v++) {
+                    int nameDistance = BoundedLevenshtein.distance(catalog.getVariantChars(),
+                            catalog.getVariantStart(i, v), catalog.getVariantLength(i, v), query, limit);
+                    if (nameDistance <= limit) {
+                        lowestNameDistance = nameDistance;
+                        limit = nameDistance - 1;
+                    }
+                }
+                if (lowestNameDistance == Integer.MAX_VALUE) {
+                    continue;
+                }
+
+                Candidate candidate = new Candidate(lowestNameDistance, partition.category(), catalog, i);
+                int position = best.size();
+                while (position > 0 && best.get(position - 1).distance() > lowestNameDistance) {
+                    position--;
+                }
+                best.add(position, candidate);
+                if (best.size() > k) {
+                    best.removeLast();
+                }
+                if (best.size() == k) {
+                    localBound = best.getLast().key();
+                    bounds.accumulateAndGet(group, localBound, Math::min);
+                }
+            }
+
+            // Граница по одному отрезку слабее границы по всем оцененным, поэтому лучшие записи сливаются в общие
+            List<Candidate> top = tops.accumulateAndGet(group, best, this::mergeTop);
+            if (top.size() == k) {
+                bounds.accumulateAndGet(group, top.getLast().key(), Math::min);
+            }
+            return best;
+        }
+
+        /**
+         * Сливает два отсортированных списка, оставляя не более k записей в каждой группе.
+         *
+         * @param left первый список
+         * @param right второй список
+         * @return отсортированный объединенный список
+         */
+        private List<Candidate> mergeTop(List<Candidate> left, List<Candidate> right) {
+            List<Candidate> all = new ArrayList<>(left.size() + right.size());
+            all.addAll(left);
+            all.addAll(right);
+            all.sort(ORDER);
+
+            int[] taken = new int[SearchCategory.values().length];
+            List<Candidate> result = new ArrayList<>(Math.min(all.size(), merged ? k : all.size()));
+            for (Candidate candidate : all) {
+                int group = merged ? 0 : candidate.category().ordinal();
+                if (taken[group] < k) {
+                    taken[group]++;
+                    result.add(candidate);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -1,23 +1,72 @@
 package org.Main.UtilityClasses;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import info.debatty.java.stringsimilarity.Levenshtein;
 import org.Main.HelperClasses.ItemHelperEntry;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * Инструменты для поиска объектов в json файлах.
- * Использует записи из src/main/resources/DataQueries для поиска.
+ * Использует записи из src/main/resources/DataQueries для поиска,
+ * предварительно загруженные в {@link CatalogIndex}.
  */
 public class SearchTools {
+    /** Время поиска полным перебором */
+    private static final Metrics.Timer CLOSEST_TIMER = Metrics.timer("search.closest");
+    /** Время поиска по BK-дереву в пределах расстояния */
+    private static final Metrics.Timer WITHIN_TIMER = Metrics.timer("search.within");
+    /** Время поиска k ближайших по BK-дереву */
+    private static final Metrics.Timer NEAREST_TIMER = Metrics.timer("search.nearest");
+    /** Время поиска k лучших линейным проходом */
+    private static final Metrics.Timer TOP_TIMER = Metrics.timer("search.top");
+    /** Время поиска по мере ввода по префиксному дереву */
+    private static final Metrics.Timer INCREMENTAL_TIMER = Metrics.timer("search.incremental");
+
+    /**
+     * Сеанс поиска по мере ввода для одного пользователя.
+     * Хранит по каталогу {@link PrefixTrie.Matcher}, поэтому запрос, продолжающий предыдущий,
+     * пересчитывает только новые столбцы матрицы Левенштейна.
+     * Если каталог перезагружен, сеанс по нему начинается заново.
+     * Сеанс не потокобезопасен.
+     */
+    public static final class Session {
+        /** Сеансы префиксных деревьев по пути к каталогу */
+        private final Map<String, PrefixTrie.Matcher> matchers = new HashMap<>();
+
+        /**
+         * Ищет k ближайших записей, переиспользуя вычисления предыдущего запроса по этому каталогу.
+         * Результат совпадает с {@link SearchTools#searchTopEntries(String, String, int)}.
+         *
+         * @param jsonFilePath путь к JSON файлу
+         * @param searchInput поисковый запрос
+         * @param k количество записей
+         * @return не более k записей, отсортированных по расстоянию
+         * @throws IOException если файл не найден или поврежден
+         */
+        public List<ItemHelperEntry> searchTopEntries(String jsonFilePath, String searchInput, int k) throws IOException {
+            CatalogIndex catalog = CatalogIndex.get(jsonFilePath);
+            PrefixTrie trie = catalog.getPrefixTrie();
+            PrefixTrie.Matcher matcher = matchers.get(jsonFilePath);
+            if (matcher == null || matcher.getTrie() != trie) {
+                matcher = trie.newMatcher();
+                matchers.put(jsonFilePath, matcher);
+            }
+
+            FlightEvents.SearchEvent event = new FlightEvents.SearchEvent();
+            event.begin();
+            long startNanos = System.nanoTime();
+            List<ItemHelperEntry> entriesResults = matcher.findNearest(CatalogIndex.normalize(searchInput), k);
+            INCREMENTAL_TIMER.recordSince(startNanos);
+            event.complete("incremental", jsonFilePath, searchInput, catalog.size(), entriesResults.size());
+            return entriesResults;
+        }
+    }
 
     /**
      * Ищет ближайшие совпадения в JSON файле.
@@ -29,73 +78,140 @@ public class SearchTools {
      * @throws IOException если файл не найден или поврежден
      */
     public static List<ItemHelperEntry> searchClosestEntries(String jsonFilePath, String searchInput) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
+        CatalogIndex catalog = CatalogIndex.get(jsonFilePath);
+        FlightEvents.SearchEvent event = new FlightEvents.SearchEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
         Levenshtein lev = new Levenshtein();
+        String query = CatalogIndex.normalize(searchInput);
+
+        List<ItemHelperEntry> entriesResults = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            // Вычисление минимального расстояния Левенштейна
+            int lowestNameDistance = Integer.MAX_VALUE;
+            for (int v = 0; v < catalog.getVariantCount(i); v++) {
+                int nameDistance = (int) lev.distance(catalog.getVariant(i, v), query);
+                if (nameDistance < lowestNameDistance) {
+                    lowestNameDistance = nameDistance;
+                }
+            }
 
-        try (InputStream inputStream = SearchTools.class.getClassLoader().getResourceAsStream(jsonFilePath)) {
-            if (inputStream == null) {
-                throw new FileNotFoundException("Файл не найден: " + jsonFilePath);
+            if (lowestNameDistance == Integer.MAX_VALUE) {
+                continue; // Нет валидных имен
             }
 
-            List<Map<String, Object>> objects = objectMapper.readValue(inputStream, new TypeReference<>() {});
-            List<ItemHelperEntry> entriesResults = new ArrayList<>();
-
-            for (Map<String, Object> object : objects) {
-                try {
-                    // Извлечение ID
-                    Object idObj = object.get("id");
-                    int id;
-                    if (idObj instanceof Number) {
-                        id = ((Number) idObj).intValue();
-                    } else if (idObj instanceof String) {
-                        try {
-                            id = Integer.parseInt((String) idObj);
-                        } catch (NumberFormatException e) {
-                            continue; // Пропуск некорректного ID
-                        }
-                    } else {
-                        continue; // Пропуск неверного типа ID
-                    }
-
-                    // Извлечение списка имен
-                    Object namesObj = object.get("strings");
-                    List<String> names;
-                    if (namesObj == null) {
-                        names = Collections.emptyList();
-                    } else {
-                        try {
-                            names = objectMapper.convertValue(namesObj, new TypeReference<>() {});
-                        } catch (Exception e) {
-                            names = Collections.emptyList();
-                        }
-                    }
-
-                    // Вычисление минимального расстояния Левенштейна
-                    int lowestNameDistance = Integer.MAX_VALUE;
-                    for (String str : names) {
-                        if (str != null) {
-                            int nameDistance = (int) lev.distance(str.toLowerCase(), searchInput);
-                            if (nameDistance < lowestNameDistance) {
-                                lowestNameDistance = nameDistance;
-                            }
-                        }
-                    }
-
-                    if (lowestNameDistance == Integer.MAX_VALUE) {
-                        continue; // Нет валидных имен
-                    }
-
-                    // Создание записи результата
-                    String name = names.isEmpty() ? "Без имени" : String.join(", ", names);
-                    entriesResults.add(new ItemHelperEntry(id, name, lowestNameDistance));
-
-                } catch (Exception e) {
-                    // Пропуск проблемных записей
+            entriesResults.add(catalog.toEntry(i, lowestNameDistance));
+        }
+
+        Collections.sort(entriesResults);
+        CLOSEST_TIMER.recordSince(startNanos);
+        event.complete("closest", jsonFilePath, searchInput, catalog.size(), entriesResults.size());
+        return entriesResults;
+    }
+
+    /**
+     * Ищет записи, у которых хотя бы один вариант имени находится
+     * не дальше заданного расстояния Левенштейна от запроса.
+     * Использует BK-дерево каталога и не вычисляет расстояние до большинства вариантов.
+     *
+     * @param jsonFilePath путь к JSON файлу
+     * @param searchInput поисковый запрос
+     * @param maxDistance максимальное расстояние Левенштейна
+     * @return отсортированный список найденных записей
+     * @throws IOException если файл не найден или поврежден
+     */
+    public static List<ItemHelperEntry> searchWithinDistance(String jsonFilePath, String searchInput, int maxDistance) throws IOException {
+        CatalogIndex catalog = CatalogIndex.get(jsonFilePath);
+        BKTree tree = catalog.getBKTree();
+        FlightEvents.SearchEvent event = new FlightEvents.SearchEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        List<ItemHelperEntry> entriesResults = tree.findWithinDistance(CatalogIndex.normalize(searchInput), maxDistance);
+        WITHIN_TIMER.recordSince(startNanos);
+        event.complete("within", jsonFilePath, searchInput, catalog.size(), entriesResults.size());
+        return entriesResults;
+    }
+
+    /**
+     * Ищет k ближайших записей по BK-дереву каталога.
+     *
+     * @param jsonFilePath путь к JSON файлу
+     * @param searchInput поисковый запрос
+     * @param k количество записей
+     * @return не более k записей, отсортированных по расстоянию
+     * @throws IOException если файл не найден или поврежден
+     */
+    public static List<ItemHelperEntry> searchNearestEntries(String jsonFilePath, String searchInput, int k) throws IOException {
+        CatalogIndex catalog = CatalogIndex.get(jsonFilePath);
+        BKTree tree = catalog.getBKTree();
+        FlightEvents.SearchEvent event = new FlightEvents.SearchEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        List<ItemHelperEntry> entriesResults = tree.findNearest(CatalogIndex.normalize(searchInput), k);
+        NEAREST_TIMER.recordSince(startNanos);
+        event.complete("nearest", jsonFilePath, searchInput, catalog.size(), entriesResults.size());
+        return entriesResults;
+    }
+
+    /**
+     * Ищет k ближайших записей линейным проходом по каталогу.
+     * Держит ограниченную кучу из k лучших записей и вычисляет расстояние
+     * с отсечением: кандидат, который не может стать лучше текущей k-й записи,
+     * отбрасывается без полного заполнения матрицы Левенштейна.
+     *
+     * @param jsonFilePath путь к JSON файлу
+     * @param searchInput поисковый запрос
+     * @param k количество записей
+     * @return не более k записей, отсортированных по расстоянию
+     * @throws IOException если файл не найден или поврежден
+     */
+    public static List<ItemHelperEntry> searchTopEntries(String jsonFilePath, String searchInput, int k) throws IOException {
+        CatalogIndex catalog = CatalogIndex.get(jsonFilePath);
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        FlightEvents.SearchEvent event = new FlightEvents.SearchEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        String query = CatalogIndex.normalize(searchInput);
+
+        // Максимальная куча: {расстояние, номер записи}, сверху худшая из k лучших
+        PriorityQueue<int[]> topK = new PriorityQueue<>(k + 1,
+                (a, b) -> a[0] != b[0] ? Integer.compare(b[0], a[0]) : Integer.compare(b[1], a[1]));
+
+        for (int i = 0; i < catalog.size(); i++) {
+            // Записи идут по порядку, поэтому при равенстве расстояний побеждает уже найденная
+            int limit = topK.size() < k ? Integer.MAX_VALUE - 1 : topK.peek()[0] - 1;
+            int lowestNameDistance = Integer.MAX_VALUE;
+
+            for (int v = 0; v < catalog.getVariantCount(i) && limit >= 0; v++) {
+                int nameDistance = BoundedLevenshtein.distance(catalog.getVariantChars(),
+                        catalog.getVariantStart(i, v), catalog.getVariantLength(i, v), query, limit);
+                if (nameDistance <= limit) {
+                    lowestNameDistance = nameDistance;
+                    limit = nameDistance - 1;
                 }
             }
 
-            Collections.sort(entriesResults);
-            return entriesResults;
+            if (lowestNameDistance == Integer.MAX_VALUE) {
+                continue; // Нет имен или запись не лучше уже найденных
+            }
+
+            topK.add(new int[]{lowestNameDistance, i});
+            if (topK.size() > k) {
+                topK.poll();
+            }
+        }
+
+        List<int[]> found = new ArrayList<>(topK);
+        found.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+
+        List<ItemHelperEntry> entriesResults = new ArrayList<>(found.size());
+        for (int[] candidate : found) {
+            entriesResults.add(catalog.toEntry(candidate[1], candidate[0]));
         }
+        TOP_TIMER.recordSince(startNanos);
+        event.complete("top", jsonFilePath, searchInput, catalog.size(), entriesResults.size());
+        return entriesResults;
     }
 }
@@ -7,9 +7,16 @@ import java.net.http.HttpResponse;
 import java.net.http.HttpConnectTimeoutException;
 import java.time.Duration;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
 
 import org.Main.HelperClasses.*;
 import org.apache.logging.log4j.LogManager;
@@ -19,19 +26,59 @@ import org.apache.logging.log4j.Logger;
 /**
  * Клиент для работы с Star Wars API (SWAPI).
  * Предоставляет методы для получения данных о персонажах, планетах и кораблях.
+ * Каждый метод доступен в блокирующем варианте и в асинхронном варианте,
+ * возвращающем {@link CompletableFuture}.
+ * Полученные сущности кэшируются в памяти и сохраняются в постоянное хранилище,
+ * которое позволяет работать после перезапуска и без доступа к сети.
  */
-public class SwapiClient {
+public class SwapiClient implements AutoCloseable {
     /** Логгер для записи событий клиента */
     private static final Logger logger = LogManager.getLogger(SwapiClient.class);
 
-    /** Объект для преобразования JSON в Java объекты */
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /** HTTP транспорт, общий для всех клиентов приложения */
+    private final SwapiTransport transport;
 
-    /** HTTP клиент для выполнения запросов */
+    /** HTTP клиент транспорта для выполнения запросов */
     private final HttpClient httpClient;
 
-    /** Базовый URL SWAPI */
-    private static final String BASE_URL = "https://swapi.tech/api/";
+    /** Кэш полученных сущностей */
+    private final EntityCache entityCache;
+
+    /** Постоянное хранилище полученных сущностей, null если недоступно */
+    private final ResponseStore responseStore;
+
+    /** Автономный режим: данные берутся только из хранилища */
+    private volatile boolean offlineMode;
+
+    /** Исполнитель запросов с повторами, дублированием и выключателем */
+    private final ResilientCaller resilientCaller;
+
+    /** Количество запросов, присоединившихся к уже выполняющемуся */
+    private static final Metrics.Counter COALESCED = Metrics.counter("swapi.coalesced");
+
+    /** Попадания в постоянное хранилище */
+    private static final Metrics.Counter STORE_HITS = Metrics.counter("store.hits");
+
+    /** Промахи постоянного хранилища */
+    private static final Metrics.Counter STORE_MISSES = Metrics.counter("store.misses");
+
+    /** Выполняющиеся сетевые запросы по конечной точке, для объединения одинаковых запросов */
+    private final ConcurrentHashMap<String, CompletableFuture<?>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /** Базовый URL SWAPI по умолчанию */
+    private static final String DEFAULT_BASE_URL = "https://swapi.tech/api/";
+
+    /** Базовый URL SWAPI, заканчивается на / */
+    private final String baseUrl;
+
+    /** Размер кэша сущностей по умолчанию */
+    private static final int DEFAULT_CACHE_SIZE = 500;
+
+    /** Время жизни записи кэша по умолчанию */
+    private static final Duration DEFAULT_CACHE_TTL = Duration.ofMinutes(30);
+
+    /** Каталог постоянного хранилища по умолчанию, переопределяется свойством swapi.cache.dir */
+    private static final String DEFAULT_STORE_DIRECTORY = "cache";
 
     /**
      * Базовое исключение для ошибок SWAPI.
@@ -56,12 +103,245 @@ public class SwapiClient {
     }
 
     /**
-     * Создает клиент с настройками HTTP.
+     * Исключение при ошибках сети: таймаутах, разрывах соединения и ошибках ввода-вывода.
+     */
+    public static class SwapiTransportException extends SwapiException {
+        public SwapiTransportException(String message, Throwable cause) { super(message, cause); }
+    }
+
+    /**
+     * Исключение при отклонении запроса разомкнутым автоматическим выключателем.
+     */
+    public static class SwapiCircuitOpenException extends SwapiException {
+        public SwapiCircuitOpenException(String message) { super(message); }
+    }
+
+    /**
+     * Создает клиент с настройками HTTP, кэшем и постоянным хранилищем по умолчанию.
+     * Автономный режим включается свойством swapi.offline=true,
+     * настройки устойчивости берутся из {@link ResiliencePolicy#fromSystemProperties()}.
      */
     public SwapiClient() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this(new EntityCache(DEFAULT_CACHE_SIZE, DEFAULT_CACHE_TTL), openDefaultStore(),
+                ResiliencePolicy.fromSystemProperties());
+        this.offlineMode = Boolean.getBoolean("swapi.offline");
+    }
+
+    /**
+     * Создает клиент с настройками HTTP, заданным кэшем и хранилищем.
+     *
+     * @param entityCache кэш полученных сущностей
+     * @param responseStore постоянное хранилище, либо null чтобы работать без него
+     */
+    public SwapiClient(EntityCache entityCache, ResponseStore responseStore) {
+        this(entityCache, responseStore, ResiliencePolicy.defaults());
+    }
+
+    /**
+     * Создает клиент с настройками HTTP, заданным кэшем, хранилищем и настройками устойчивости.
+     *
+     * @param entityCache кэш полученных сущностей
+     * @param responseStore постоянное хранилище, либо null чтобы работать без него
+     * @param resiliencePolicy настройки повторов, дублирующих запросов и выключателя
+     */
+    public SwapiClient(EntityCache entityCache, ResponseStore responseStore, ResiliencePolicy resiliencePolicy) {
+        this(entityCache, responseStore, resiliencePolicy, SwapiTransport.shared());
+    }
+
+    /**
+     * Создает клиент поверх заданного HTTP транспорта.
+     * Базовый URL берется из свойства swapi.baseUrl, по умолчанию https://swapi.tech/api/.
+     *
+     * @param entityCache кэш полученных сущностей
+     * @param responseStore постоянное хранилище, либо null чтобы работать без него
+     * @param resiliencePolicy настройки повторов, дублирующих запросов и выключателя
+     * @param transport HTTP транспорт
+     */
+    public SwapiClient(EntityCache entityCache, ResponseStore responseStore, ResiliencePolicy resiliencePolicy,
+                       SwapiTransport transport) {
+        this(entityCache, responseStore, resiliencePolicy, transport,
+                System.getProperty("swapi.baseUrl", DEFAULT_BASE_URL));
+    }
+
+    /**
+     * Создает клиент поверх заданного HTTP транспорта для заданного сервера,
+     * например локальной замены SWAPI при нагрузочном тестировании.
+     *
+     * @param entityCache кэш полученных сущностей
+     * @param responseStore постоянное хранилище, либо null чтобы работать без него
+     * @param resiliencePolicy настройки повторов, дублирующих запросов и выключателя
+     * @param transport HTTP транспорт
+     * @param baseUrl базовый URL API, например http://localhost:8090/api/
+     * @throws IllegalArgumentException если URL не абсолютный
+     */
+    public SwapiClient(EntityCache entityCache, ResponseStore responseStore, ResiliencePolicy resiliencePolicy,
+                       SwapiTransport transport, String baseUrl) {
+        String normalized = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        if (!URI.create(normalized).isAbsolute()) {
+            throw new IllegalArgumentException("Базовый URL должен быть абсолютным: " + baseUrl);
+        }
+        this.baseUrl = normalized;
+        this.transport = transport;
+        this.httpClient = transport.getHttpClient();
+        this.entityCache = entityCache;
+        this.responseStore = responseStore;
+        this.resilientCaller = new ResilientCaller(resiliencePolicy);
+    }
+
+    /**
+     * Открывает постоянное хранилище в каталоге по умолчанию.
+     *
+     * @return хранилище либо null, если его не удалось открыть
+     */
+    private static ResponseStore openDefaultStore() {
+        Path directory = storeDirectory();
+        try {
+            return new ResponseStore(directory);
+        } catch (IOException e) {
+            logger.error("Не удалось открыть хранилище {}: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Возвращает базовый URL API.
+     *
+     * @return базовый URL, заканчивается на /
+     */
+    public String getBaseUrl() { return baseUrl; }
+
+    /**
+     * Возвращает каталог постоянного хранилища, заданный свойством swapi.cache.dir.
+     *
+     * @return каталог хранилища
+     */
+    public static Path storeDirectory() {
+        return Path.of(System.getProperty("swapi.cache.dir", DEFAULT_STORE_DIRECTORY));
+    }
+
+    /**
+     * Заранее устанавливает соединение с SWAPI через транспорт клиента.
+     * В автономном режиме ничего не делает.
+     *
+     * @return future, завершающийся после установки соединения или ошибки
+     */
+    public CompletableFuture<Void> prewarm() {
+        if (offlineMode) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return transport.prewarm(URI.create(baseUrl));
+    }
+
+    /**
+     * Включает или выключает автономный режим.
+     * В автономном режиме сеть не используется, а данные берутся из кэша и хранилища.
+     *
+     * @param offlineMode true для автономного режима
+     */
+    public void setOfflineMode(boolean offlineMode) {
+        this.offlineMode = offlineMode;
+        if (offlineMode) {
+            logger.info("Клиент SWAPI работает в автономном режиме");
+        }
+    }
+
+    /**
+     * Проверяет, включен ли автономный режим.
+     *
+     * @return true в автономном режиме
+     */
+    public boolean isOfflineMode() { return offlineMode; }
+
+    /**
+     * Закрывает постоянное хранилище клиента.
+     */
+    @Override
+    public void close() {
+        if (responseStore != null) {
+            try {
+                responseStore.close();
+            } catch (IOException e) {
+                logger.error("Ошибка закрытия хранилища: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Возвращает кэш сущностей клиента.
+     *
+     * @return кэш сущностей
+     */
+    public EntityCache getEntityCache() { return entityCache; }
+
+    /**
+     * Возвращает выключатель запросов клиента.
+     *
+     * @return выключатель
+     */
+    public CircuitBreaker getCircuitBreaker() { return resilientCaller.getCircuitBreaker(); }
+
+    /**
+     * Тип ресурса SWAPI и DTO, в который преобразуются его данные.
+     *
+     * @param <T> тип DTO
+     */
+    public static final class ResourceType<T> {
+        /** Персонажи */
+        public static final ResourceType<PersonInfoDTO> PEOPLE =
+                new ResourceType<>("people", PersonInfoDTO.class, "персонажа");
+        /** Планеты */
+        public static final ResourceType<PlanetInfoDTO> PLANETS =
+                new ResourceType<>("planets", PlanetInfoDTO.class, "планеты");
+        /** Корабли */
+        public static final ResourceType<StarshipInfoDTO> STARSHIPS =
+                new ResourceType<>("starships", StarshipInfoDTO.class, "корабля");
+        /** Фильмы, используются только для отображения названий */
+        public static final ResourceType<ResourceNameDTO> FILMS =
+                new ResourceType<>("films", ResourceNameDTO.class, "фильма");
+        /** Виды, используются только для отображения названий */
+        public static final ResourceType<ResourceNameDTO> SPECIES =
+                new ResourceType<>("species", ResourceNameDTO.class, "вида");
+        /** Транспорт, используется только для отображения названий */
+        public static final ResourceType<ResourceNameDTO> VEHICLES =
+                new ResourceType<>("vehicles", ResourceNameDTO.class, "транспорта");
+
+        /** Имя ресурса в пути запроса */
+        private final String path;
+        /** Класс DTO для десериализации */
+        private final Class<T> dtoClass;
+        /** Название сущности в родительном падеже для сообщений */
+        private final String displayName;
+
+        private ResourceType(String path, Class<T> dtoClass, String displayName) {
+            this.path = path;
+            this.dtoClass = dtoClass;
+            this.displayName = displayName;
+        }
+
+        /**
+         * Возвращает имя ресурса в пути запроса.
+         *
+         * @return имя ресурса, например "people"
+         */
+        public String getPath() { return path; }
+
+        /**
+         * Возвращает класс DTO ресурса.
+         *
+         * @return класс DTO
+         */
+        public Class<T> getDtoClass() { return dtoClass; }
+
+        /**
+         * Возвращает конечную точку API для сущности.
+         *
+         * @param id идентификатор сущности
+         * @return конечная точка, например "people/1"
+         */
+        public String endpoint(int id) { return path + "/" + id; }
+
+        @Override
+        public String toString() { return path; }
     }
 
     /**
@@ -72,21 +352,7 @@ public class SwapiClient {
      * @throws SwapiException при ошибке запроса или парсинга
      */
     public PersonInfoDTO getPerson(int id) throws SwapiException {
-        logger.info("Получение данных персонажа с ID: {}", id);
-        String json = fetchJson("people/" + id);
-        try {
-            // Парсим JSON и извлекаем properties из result
-            JsonNode rootNode = objectMapper.readTree(json);
-            JsonNode resultNode = rootNode.get("result");
-            if (resultNode != null && resultNode.has("properties")) {
-                JsonNode propertiesNode = resultNode.get("properties");
-                return objectMapper.treeToValue(propertiesNode, PersonInfoDTO.class);
-            } else {
-                throw new SwapiException("Неверный формат ответа от API для персонажа с ID: " + id);
-            }
-        } catch (JsonProcessingException e) {
-            throw new SwapiException("Ошибка парсинга данных персонажа с ID: " + id, e);
-        }
+        return await(getPersonAsync(id));
     }
 
     /**
@@ -97,21 +363,7 @@ public class SwapiClient {
      * @throws SwapiException при ошибке запроса или парсинга
      */
     public PlanetInfoDTO getPlanet(int id) throws SwapiException {
-        logger.info("Получение данных планеты с ID: {}", id);
-        String json = fetchJson("planets/" + id);
-        try {
-            // Парсим JSON и извлекаем properties из result
-            JsonNode rootNode = objectMapper.readTree(json);
-            JsonNode resultNode = rootNode.get("result");
-            if (resultNode != null && resultNode.has("properties")) {
-                JsonNode propertiesNode = resultNode.get("properties");
-                return objectMapper.treeToValue(propertiesNode, PlanetInfoDTO.class);
-            } else {
-                throw new SwapiException("Неверный формат ответа от API для планеты с ID: " + id);
-            }
-        } catch (JsonProcessingException e) {
-            throw new SwapiException("Ошибка парсинга данных планеты с ID: " + id, e);
-        }
+        return await(getPlanetAsync(id));
     }
 
     /**
@@ -122,53 +374,396 @@ public class SwapiClient {
      * @throws SwapiException при ошибке запроса или парсинга
      */
     public StarshipInfoDTO getStarship(int id) throws SwapiException {
-        logger.info("Получение данных корабля с ID: {}", id);
-        String json = fetchJson("starships/" + id);
+        return await(getStarshipAsync(id));
+    }
+
+    /**
+     * Асинхронно получает информацию о персонаже по ID.
+     *
+     * @param id идентификатор персонажа
+     * @return future с данными персонажа, завершается с {@link SwapiException} при ошибке
+     */
+    public CompletableFuture<PersonInfoDTO> getPersonAsync(int id) {
+        return fetchAsync(ResourceType.PEOPLE, id);
+    }
+
+    /**
+     * Асинхронно получает информацию о планете по ID.
+     *
+     * @param id идентификатор планеты
+     * @return future с данными планеты, завершается с {@link SwapiException} при ошибке
+     */
+    public CompletableFuture<PlanetInfoDTO> getPlanetAsync(int id) {
+        return fetchAsync(ResourceType.PLANETS, id);
+    }
+
+    /**
+     * Асинхронно получает информацию о корабле по ID.
+     *
+     * @param id идентификатор корабля
+     * @return future с данными корабля, завершается с {@link SwapiException} при ошибке
+     */
+    public CompletableFuture<StarshipInfoDTO> getStarshipAsync(int id) {
+        return fetchAsync(ResourceType.STARSHIPS, id);
+    }
+
+    /**
+     * Асинхронно получает персонажей по списку ID.
+     * Повторяющиеся ID запрашиваются один раз.
+     *
+     * @param ids идентификаторы персонажей
+     * @return future для каждого ID в порядке первого появления, завершаются по мере получения данных
+     */
+    public Map<Integer, CompletableFuture<PersonInfoDTO>> getPeople(int[] ids) {
+        return fetchBatchAsync(ResourceType.PEOPLE, ids);
+    }
+
+    /**
+     * Асинхронно получает планеты по списку ID.
+     * Повторяющиеся ID запрашиваются один раз.
+     *
+     * @param ids идентификаторы планет
+     * @return future для каждого ID в порядке первого появления, завершаются по мере получения данных
+     */
+    public Map<Integer, CompletableFuture<PlanetInfoDTO>> getPlanets(int[] ids) {
+        return fetchBatchAsync(ResourceType.PLANETS, ids);
+    }
+
+    /**
+     * Асинхронно получает корабли по списку ID.
+     * Повторяющиеся ID запрашиваются один раз.
+     *
+     * @param ids идентификаторы кораблей
+     * @return future для каждого ID в порядке первого появления, завершаются по мере получения данных
+     */
+    public Map<Integer, CompletableFuture<StarshipInfoDTO>> getStarships(int[] ids) {
+        return fetchBatchAsync(ResourceType.STARSHIPS, ids);
+    }
+
+    /**
+     * Асинхронно получает сущности заданного типа по списку ID.
+     * Все запросы запускаются сразу и выполняются параллельно.
+     *
+     * @param type тип ресурса
+     * @param ids идентификаторы сущностей
+     * @param <T> тип DTO
+     * @return future для каждого уникального ID в порядке первого появления
+     */
+    public <T> Map<Integer, CompletableFuture<T>> fetchBatchAsync(ResourceType<T> type, int[] ids) {
+        Map<Integer, CompletableFuture<T>> results = new LinkedHashMap<>();
+        for (int id : ids) {
+            if (!results.containsKey(id)) {
+                results.put(id, fetchAsync(type, id));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Асинхронно получает сущность заданного типа по ID.
+     * Сначала проверяет кэш и постоянное хранилище, при промахе запрашивает SWAPI
+     * и сохраняет результат в оба. Одновременные запросы одной и той же сущности
+     * объединяются в один HTTP запрос.
+     *
+     * @param type тип ресурса
+     * @param id идентификатор сущности
+     * @param <T> тип DTO
+     * @return future с данными сущности
+     */
+    public <T> CompletableFuture<T> fetchAsync(ResourceType<T> type, int id) {
+        T cached = entityCache.get(type, id);
+        if (cached != null) {
+            logger.info("Данные {} с ID {} взяты из кэша", type.displayName, id);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        T stored = readStored(type, id);
+        if (stored != null) {
+            logger.info("Данные {} с ID {} взяты из хранилища", type.displayName, id);
+            entityCache.put(type, id, stored);
+            return CompletableFuture.completedFuture(stored);
+        }
+
+        if (offlineMode) {
+            return CompletableFuture.failedFuture(new SwapiNotFoundException(
+                    "Нет сохраненных данных " + type.displayName + " с ID " + id + " в автономном режиме"));
+        }
+
+        String endpoint = type.endpoint(id);
+        CompletableFuture<T> request = new CompletableFuture<>();
+        CompletableFuture<?> running = inFlightRequests.putIfAbsent(endpoint, request);
+        if (running != null) {
+            COALESCED.increment();
+            logger.info("Запрос {} с ID {} уже выполняется, ожидание его результата", type.displayName, id);
+            return running.thenApply(type.dtoClass::cast);
+        }
+
+        logger.info("Получение данных {} с ID: {}", type.displayName, id);
+        fetchEntityAsync(type, id)
+                .thenApply(value -> {
+                    entityCache.put(type, id, value);
+                    writeStored(type, id, value);
+                    return value;
+                })
+                .whenComplete((value, error) -> {
+                    inFlightRequests.remove(endpoint, request);
+                    if (error != null) {
+                        request.completeExceptionally(error);
+                    } else {
+                        request.complete(value);
+                    }
+                });
+        // Каждый вызывающий получает свою копию, чтобы отмена не затрагивала других ожидающих
+        return request.copy();
+    }
+
+    /**
+     * Сохраняет полученную в обход {@link #fetchAsync} сущность в кэш и постоянное хранилище,
+     * например при синхронизации со страниц списка.
+     *
+     * @param type тип ресурса
+     * @param id идентификатор сущности
+     * @param value DTO сущности
+     * @param <T> тип DTO
+     */
+    public <T> void storeEntity(ResourceType<T> type, int id, T value) {
+        entityCache.put(type, id, value);
+        writeStored(type, id, value);
+    }
+
+    /**
+     * Читает сущность из постоянного хранилища.
+     *
+     * @param type тип ресурса
+     * @param id идентификатор сущности
+     * @param <T> тип DTO
+     * @return DTO сущности либо null, если ее нет в хранилище или она повреждена
+     */
+    private <T> T readStored(ResourceType<T> type, int id) {
+        if (responseStore == null) {
+            return null;
+        }
         try {
-            // Парсим JSON и извлекаем properties из result
-            JsonNode rootNode = objectMapper.readTree(json);
-            JsonNode resultNode = rootNode.get("result");
-            if (resultNode != null && resultNode.has("properties")) {
-                JsonNode propertiesNode = resultNode.get("properties");
-                return objectMapper.treeToValue(propertiesNode, StarshipInfoDTO.class);
-            } else {
-                throw new SwapiException("Неверный формат ответа от API для корабля с ID: " + id);
+            byte[] data = responseStore.get(type.endpoint(id));
+            (data != null ? STORE_HITS : STORE_MISSES).increment();
+            return data != null ? SwapiResponseDecoder.readDto(data, type.dtoClass) : null;
+        } catch (IOException e) {
+            logger.error("Ошибка чтения {} с ID {} из хранилища: {}", type.displayName, id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Сохраняет сущность в постоянное хранилище.
+     *
+     * @param type тип ресурса
+     * @param id идентификатор сущности
+     * @param value DTO сущности
+     * @param <T> тип DTO
+     */
+    private <T> void writeStored(ResourceType<T> type, int id, T value) {
+        if (responseStore == null) {
+            return;
+        }
+        try {
+            responseStore.put(type.endpoint(id), SwapiResponseDecoder.writeDto(value));
+        } catch (IOException e) {
+            logger.error("Ошибка записи {} с ID {} в хранилище: {}", type.displayName, id, e.getMessage());
+        }
+    }
+
+    /**
+     * Ожидает завершения future и возвращает результат,
+     * разворачивая исключение в {@link SwapiException}.
+     *
+     * @param future ожидаемый результат
+     * @param <T> тип результата
+     * @return результат future
+     * @throws SwapiException при ошибке запроса или парсинга
+     */
+    public static <T> T await(CompletableFuture<T> future) throws SwapiException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new SwapiException("Запрос прерван", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Извлекает {@link SwapiException} из исключения асинхронного вызова.
+     *
+     * @param throwable исключение, которым завершился future
+     * @return исходное исключение SWAPI либо обертка над неожиданной ошибкой
+     */
+    public static SwapiException unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof SwapiException swapiException) {
+            return swapiException;
+        }
+        return new SwapiException("Неожиданная ошибка: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Декодер тела успешного ответа.
+     *
+     * @param <R> тип результата
+     */
+    @FunctionalInterface
+    private interface BodyDecoder<R> {
+        R decode(InputStream body) throws IOException, SwapiException;
+    }
+
+    /**
+     * Асинхронно получает сущность из SWAPI с повторами, дублированием и проверкой выключателя.
+     *
+     * @param type тип ресурса
+     * @param id идентификатор сущности
+     * @param <T> тип DTO
+     * @return future с DTO, завершается с {@link SwapiException} при ошибках сети, HTTP или формата
+     */
+    private <T> CompletableFuture<T> fetchEntityAsync(ResourceType<T> type, int id) {
+        String endpoint = type.endpoint(id);
+        String description = type.displayName + " с ID: " + id;
+        return resilientCaller.execute(endpoint, () -> sendRequest(endpoint, description, body -> {
+            SwapiResponseDecoder.Decoded<T> decoded = SwapiResponseDecoder.decode(body, type.dtoClass);
+            checkMessage(decoded.message());
+            if (decoded.properties() == null) {
+                throw new SwapiException("Неверный формат ответа от API для " + description);
             }
-        } catch (JsonProcessingException e) {
-            throw new SwapiException("Ошибка парсинга данных корабля с ID: " + id, e);
+            return decoded.properties();
+        }));
+    }
+
+    /**
+     * Асинхронно получает страницу списка ресурсов вместе с полными данными сущностей.
+     * Результат не кэшируется и не объединяется с другими запросами.
+     *
+     * @param type тип ресурса
+     * @param page номер страницы, начиная с 1
+     * @param limit количество записей на странице
+     * @param <T> тип DTO
+     * @return future со страницей, завершается с {@link SwapiException} при ошибках сети, HTTP или формата
+     */
+    public <T> CompletableFuture<SwapiResponseDecoder.Page<T>> fetchPageAsync(ResourceType<T> type, int page, int limit) {
+        if (offlineMode) {
+            return CompletableFuture.failedFuture(new SwapiException("Списки ресурсов недоступны в автономном режиме"));
         }
+        String endpoint = type.path + "?page=" + page + "&limit=" + limit + "&expanded=true";
+        String description = "страницы " + page + " ресурса " + type.path;
+        logger.info("Получение {}", description);
+        return resilientCaller.execute(endpoint, () -> sendRequest(endpoint, description, body -> {
+            SwapiResponseDecoder.Page<T> decoded = SwapiResponseDecoder.decodePage(body, type.dtoClass);
+            checkMessage(decoded.message());
+            return decoded;
+        }));
     }
 
     /**
-     * Выполняет HTTP запрос к SWAPI и возвращает JSON ответ.
+     * Проверяет поле message ответа.
+     *
+     * @param message значение поля message
+     * @throws SwapiException если API сообщил об ошибке
+     */
+    private static void checkMessage(String message) throws SwapiException {
+        if (!"ok".equals(message)) {
+            // Если API вернул ошибку в теле ответа
+            throw new SwapiException("Ошибка API: " + (message != null ? message : "Неизвестная ошибка API"));
+        }
+    }
+
+    /**
+     * Асинхронно выполняет один HTTP запрос к SWAPI и декодирует результат прямо из потока ответа.
+     * Не блокирует вызывающий поток.
      *
      * @param endpoint конечная точка API
-     * @return JSON строка с данными
-     * @throws SwapiException при ошибках сети или HTTP
+     * @param description описание запрашиваемых данных для сообщений об ошибках
+     * @param decoder декодер тела успешного ответа
+     * @param <R> тип результата
+     * @return future с результатом, завершается с {@link SwapiException} при ошибках сети, HTTP или формата
      */
-    private String fetchJson(String endpoint) throws SwapiException {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(BASE_URL + endpoint))
-                    .timeout(Duration.ofSeconds(10))
-                    .GET()
-                    .build();
+    private <R> CompletableFuture<R> sendRequest(String endpoint, String description, BodyDecoder<R> decoder) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + endpoint))
+                .timeout(resilientCaller.getPolicy().requestTimeout())
+                .GET()
+                .build();
 
-            HttpResponse<String> response = httpClient.send(request,
-                    HttpResponse.BodyHandlers.ofString());
+        String resource = resourceOf(endpoint);
+        FlightEvents.HttpEvent event = new FlightEvents.HttpEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        CompletableFuture<HttpResponse<InputStream>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<R> result = exchange.handle((response, error) -> {
+            try {
+                if (error != null) {
+                    Metrics.timer("swapi.request." + resource + ".transport").recordSince(startNanos);
+                    event.complete(endpoint, 0);
+                    throw translateError(endpoint, error);
+                }
+                try {
+                    return decodeResponse(response, resource, endpoint, description, decoder, event);
+                } finally {
+                    Metrics.timer("swapi.request." + resource + "." + response.statusCode() / 100 + "xx")
+                            .recordSince(startNanos);
+                    event.complete(endpoint, response.statusCode());
+                }
+            } catch (SwapiException e) {
+                throw new CompletionException(e);
+            }
+        });
+        // Отмена результата (например, проигравшего дублирующего запроса) прерывает и сам HTTP обмен
+        return ResilientCaller.cancelSourceOnCancel(exchange, result);
+    }
 
-            int statusCode = response.statusCode();
+    /**
+     * Выделяет ресурс из конечной точки для имен метрик.
+     *
+     * @param endpoint конечная точка, например people/1 или people?page=1
+     * @return ресурс, например people
+     */
+    private static String resourceOf(String endpoint) {
+        int end = 0;
+        while (end < endpoint.length() && endpoint.charAt(end) != '/' && endpoint.charAt(end) != '?') {
+            end++;
+        }
+        return endpoint.substring(0, end);
+    }
 
+    /**
+     * Проверяет HTTP ответ и декодирует его тело за один проход по потоку.
+     *
+     * @param response HTTP ответ с потоком тела
+     * @param resource ресурс для имен метрик
+     * @param endpoint конечная точка API
+     * @param description описание запрашиваемых данных для сообщений об ошибках
+     * @param decoder декодер тела успешного ответа
+     * @param event событие JFR, в котором считаются прочитанные байты
+     * @param <R> тип результата
+     * @return декодированный результат
+     * @throws SwapiException при ошибке HTTP, ошибке в теле ответа или неверном формате
+     */
+    private <R> R decodeResponse(HttpResponse<InputStream> response, String resource, String endpoint,
+                                 String description, BodyDecoder<R> decoder,
+                                 FlightEvents.HttpEvent event) throws SwapiException {
+        int statusCode = response.statusCode();
+
+        try (InputStream body = event.track(response.body())) {
             if (statusCode == 200) {
-                // Проверяем, что ответ содержит "ok"
-                String body = response.body();
-                if (body.contains("\"message\":\"ok\"")) {
-                    return body;
-                } else {
-                    // Если API вернул ошибку в теле ответа
-                    JsonNode rootNode = objectMapper.readTree(body);
-                    String message = rootNode.has("message") ? rootNode.get("message").asText() : "Неизвестная ошибка API";
-                    throw new SwapiException("Ошибка API: " + message);
+                // Тело читается из сети по мере разбора, поэтому замер включает и передачу тела
+                long startNanos = System.nanoTime();
+                try {
+                    return decoder.decode(body);
+                } finally {
+                    Metrics.timer("swapi.decode." + resource).recordSince(startNanos);
                 }
             } else if (statusCode == 404) {
                 throw new SwapiNotFoundException("Ресурс не найден: " + endpoint);
@@ -179,14 +774,32 @@ public class SwapiClient {
                 throw new SwapiException("HTTP ошибка (" + statusCode +
                         ") для: " + endpoint);
             }
-
-        } catch (HttpConnectTimeoutException e) {
-            throw new SwapiException("Таймаут подключения для: " + endpoint + ". Проверьте подключение к интернету", e);
+        } catch (JsonProcessingException e) {
+            throw new SwapiException("Ошибка парсинга данных " + description, e);
         } catch (IOException e) {
-            throw new SwapiException("Ошибка ввода-вывода для: " + endpoint + ". Проверьте состояние API на https://swapi.tech", e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new SwapiException("Запрос прерван для: " + endpoint, e);
+            throw translateError(endpoint, e);
+        }
+    }
+
+    /**
+     * Преобразует ошибку HTTP клиента в {@link SwapiException}.
+     *
+     * @param endpoint конечная точка API
+     * @param error исключение HTTP клиента
+     * @return исключение SWAPI с понятным сообщением
+     */
+    private static SwapiException translateError(String endpoint, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        if (cause instanceof SwapiException swapiException) {
+            return swapiException;
+        } else if (cause instanceof HttpConnectTimeoutException) {
+            return new SwapiTransportException("Таймаут подключения для: " + endpoint + ". Проверьте подключение к интернету", cause);
+        } else if (cause instanceof IOException) {
+            return new SwapiTransportException("Ошибка ввода-вывода для: " + endpoint + ". Проверьте состояние API на https://swapi.tech", cause);
+        } else if (cause instanceof CancellationException) {
+            return new SwapiException("Запрос прерван для: " + endpoint, cause);
         }
+        return new SwapiException("Неожиданная ошибка для: " + endpoint, cause);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,289 @@
+package org.Main.UtilityClasses;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.Main.HelperClasses.ItemHelperEntry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Встроенный HTTP сервис поиска и получения сущностей.
+ * Несколько программ используют один процесс с загруженными каталогами и общим кэшем
+ * {@link SwapiClient}, одинаковые одновременные запросы к SWAPI объединяются клиентом.
+ * Каждый запрос обрабатывается в своем виртуальном потоке.
+ * <ul>
+ *     <li>GET /search?q=&amp;type=&amp;k=&amp;merged= — поиск по каталогам, по категориям или общим рейтингом</li>
+ *     <li>GET /people/{id}, /planets/{id}, /starships/{id} — данные сущности</li>
+ *     <li>GET /health — состояние сервиса</li>
+ * </ul>
+ */
+public class SwapiHttpService implements AutoCloseable {
+    /** Логгер для записи событий сервиса */
+    private static final Logger logger = LogManager.getLogger(SwapiHttpService.class);
+
+    /** Количество результатов поиска по умолчанию */
+    private static final int DEFAULT_SEARCH_LIMIT = 5;
+
+    /** Максимальное количество результатов поиска в одной категории */
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    /** Объект Jackson для записи ответов */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Клиент SWAPI с общим кэшем */
+    private final SwapiClient swapiClient;
+
+    /** Параллельный поиск по категориям */
+    private final SearchEngine searchEngine = new SearchEngine();
+
+    /** HTTP сервер */
+    private final HttpServer server;
+
+    /** Исполнитель обработчиков, по виртуальному потоку на запрос */
+    private final ExecutorService executor;
+
+    /**
+     * Создает сервис на заданном адресе. Сервер запускается методом {@link #start()}.
+     *
+     * @param swapiClient клиент SWAPI
+     * @param address адрес и порт
+     * @throws IOException если не удалось занять порт
+     */
+    public SwapiHttpService(SwapiClient swapiClient, InetSocketAddress address) throws IOException {
+        this.swapiClient = swapiClient;
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+
+        server.createContext("/search", this::handleSearch);
+        server.createContext("/health", this::handleHealth);
+        for (SearchCategory category : SearchCategory.values()) {
+            server.createContext("/" + category.getKey() + "/", exchange -> handleEntity(exchange, category));
+        }
+    }
+
+    /**
+     * Запускает сервер.
+     */
+    public void start() {
+        server.start();
+        logger.info("HTTP сервис запущен на {}", server.getAddress());
+    }
+
+    /**
+     * Возвращает адрес, на котором работает сервер.
+     *
+     * @return адрес сервера
+     */
+    public InetSocketAddress getAddress() { return server.getAddress(); }
+
+    /**
+     * Останавливает сервер, дождавшись завершения текущих запросов не дольше секунды.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        logger.info("HTTP сервис остановлен");
+    }
+
+    /**
+     * Обрабатывает /search?q=&amp;type=&amp;k=&amp;merged=.
+     * С merged=true возвращает один список из k записей всех категорий с указанием категории,
+     * иначе k записей по каждой категории.
+     *
+     * @param exchange HTTP обмен
+     * @throws IOException при ошибке записи ответа
+     */
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        if (!checkGet(exchange)) {
+            return;
+        }
+        Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        String query = parameters.getOrDefault("q", "").trim();
+        if (query.isEmpty()) {
+            sendError(exchange, 400, "Не указан параметр q");
+            return;
+        }
+
+        List<SearchCategory> categories;
+        int limit;
+        try {
+            String type = parameters.get("type");
+            categories = type == null || type.isBlank() || type.equalsIgnoreCase("all")
+                    ? List.of(SearchCategory.values())
+                    : List.of(SearchCategory.of(type));
+            limit = parameters.containsKey("k") ? Integer.parseInt(parameters.get("k")) : DEFAULT_SEARCH_LIMIT;
+            if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+                throw new IllegalArgumentException("Параметр k должен быть от 1 до " + MAX_SEARCH_LIMIT);
+            }
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Параметр k должен быть числом");
+            return;
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+            return;
+        }
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("query", query);
+        try {
+            if (Boolean.parseBoolean(parameters.get("merged"))) {
+                ArrayNode array = root.putArray("results");
+                for (SearchEngine.Hit hit : searchEngine.searchMerged(query, categories, limit)) {
+                    putEntry(array, hit.entry()).put("type", hit.category().getKey());
+                }
+            } else {
+                ObjectNode results = root.putObject("results");
+                searchEngine.searchByCategory(query, categories, limit).forEach((category, entries) -> {
+                    ArrayNode array = results.putArray(category.getKey());
+                    entries.forEach(item -> putEntry(array, item));
+                });
+            }
+        } catch (IOException e) {
+            logger.error("Каталог недоступен: {}", e.getMessage());
+            sendError(exchange, 500, "Каталог недоступен");
+            return;
+        }
+        sendJson(exchange, 200, objectMapper.writeValueAsBytes(root));
+    }
+
+    private static ObjectNode putEntry(ArrayNode array, ItemHelperEntry item) {
+        return array.addObject()
+                .put("id", item.getId())
+                .put("name", item.getName())
+                .put("distance", item.getNameDistance());
+    }
+
+    /**
+     * Обрабатывает /{категория}/{id}.
+     *
+     * @param exchange HTTP обмен
+     * @param category категория ресурса
+     * @throws IOException при ошибке записи ответа
+     */
+    private void handleEntity(HttpExchange exchange, SearchCategory category) throws IOException {
+        if (!checkGet(exchange)) {
+            return;
+        }
+        String idText = exchange.getRequestURI().getPath().substring(category.getKey().length() + 2);
+        if (idText.endsWith("/")) {
+            idText = idText.substring(0, idText.length() - 1); // /people/1/ равносилен /people/1
+        }
+        int id;
+        try {
+            id = Integer.parseInt(idText);
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Неверный ID: " + idText);
+            return;
+        }
+
+        Object dto;
+        try {
+            dto = swapiClient.fetchAsync(category.getType(), id).join();
+        } catch (CompletionException e) {
+            SwapiClient.SwapiException error = SwapiClient.unwrap(e);
+            sendError(exchange, statusFor(error), error.getMessage());
+            return;
+        } catch (CancellationException e) {
+            logger.warn("Запрос {} {} отменен", category.getKey(), id);
+            sendError(exchange, 503, "Запрос отменен, повторите позже");
+            return;
+        }
+        sendJson(exchange, 200, objectMapper.writeValueAsBytes(dto));
+    }
+
+    /**
+     * Обрабатывает /health.
+     *
+     * @param exchange HTTP обмен
+     * @throws IOException при ошибке записи ответа
+     */
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        if (!checkGet(exchange)) {
+            return;
+        }
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("circuit", swapiClient.getCircuitBreaker().getState().name());
+        root.put("offline", swapiClient.isOfflineMode());
+        root.put("cache", swapiClient.getEntityCache().toString());
+        sendJson(exchange, 200, objectMapper.writeValueAsBytes(root));
+    }
+
+    /**
+     * Подбирает HTTP статус для ошибки SWAPI.
+     *
+     * @param error ошибка
+     * @return HTTP статус
+     */
+    private static int statusFor(SwapiClient.SwapiException error) {
+        if (error instanceof SwapiClient.SwapiNotFoundException) {
+            return 404;
+        } else if (error instanceof SwapiClient.SwapiCircuitOpenException) {
+            return 503;
+        } else if (error instanceof SwapiClient.SwapiTransportException) {
+            return 504;
+        }
+        return 502;
+    }
+
+    private static boolean checkGet(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", "GET");
+        sendError(exchange, 405, "Поддерживается только GET");
+        return false;
+    }
+
+    /**
+     * Разбирает параметры строки запроса.
+     *
+     * @param rawQuery строка запроса в URL кодировке, может быть null
+     * @return параметры по имени
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("error", message);
+        sendJson(exchange, status, objectMapper.writeValueAsBytes(root));
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package org.Main.UtilityClasses;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Потоковый декодер ответов SWAPI.
+ * За один проход по ответу проверяет поле message, находит result.properties
+ * (или results[].properties для страниц списка) и сразу преобразует его в DTO,
+ * не строя промежуточное дерево JSON.
+ */
+public final class SwapiResponseDecoder {
+
+    /** Общий объект Jackson, настроенный один раз */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Фабрика потоковых парсеров */
+    private static final JsonFactory jsonFactory = objectMapper.getFactory();
+
+    /** Переиспользуемые readers для каждого класса DTO */
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private SwapiResponseDecoder() {
+    }
+
+    /**
+     * Результат декодирования ответа.
+     *
+     * @param message значение поля message, null если поля нет
+     * @param properties DTO из result.properties, null если поля нет
+     * @param <T> тип DTO
+     */
+    public record Decoded<T>(String message, T properties) {
+        /**
+         * Проверяет, что API сообщил об успешном ответе.
+         *
+         * @return true если message равно "ok"
+         */
+        public boolean isOk() { return "ok".equals(message); }
+    }
+
+    /**
+     * Запись страницы списка ресурсов.
+     *
+     * @param uid идентификатор сущности
+     * @param properties DTO сущности
+     * @param <T> тип DTO
+     */
+    public record PageEntry<T>(int uid, T properties) {}
+
+    /**
+     * Страница списка ресурсов, полученная с параметром expanded=true.
+     *
+     * @param message значение поля message, null если поля нет
+     * @param totalRecords общее количество записей ресурса
+     * @param totalPages общее количество страниц
+     * @param results записи страницы
+     * @param <T> тип DTO
+     */
+    public record Page<T>(String message, int totalRecords, int totalPages, List<PageEntry<T>> results) {
+        /**
+         * Проверяет, что API сообщил об успешном ответе.
+         *
+         * @return true если message равно "ok"
+         */
+        public boolean isOk() { return "ok".equals(message); }
+    }
+
+    /**
+     * Возвращает переиспользуемый reader для класса DTO.
+     *
+     * @param dtoClass класс DTO
+     * @param <T> тип DTO
+     * @return reader для класса
+     */
+    public static <T> ObjectReader readerFor(Class<T> dtoClass) {
+        return readers.computeIfAbsent(dtoClass, objectMapper::readerFor);
+    }
+
+    /**
+     * Читает ответ SWAPI из потока за один проход.
+     * Поля могут идти в любом порядке, лишние поля пропускаются без разбора.
+     *
+     * @param inputStream поток с телом ответа
+     * @param dtoClass класс DTO для result.properties
+     * @param <T> тип DTO
+     * @return поле message и DTO из result.properties
+     * @throws IOException при ошибке чтения или неверном JSON
+     */
+    public static <T> Decoded<T> decode(InputStream inputStream, Class<T> dtoClass) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            return decode(parser, dtoClass);
+        }
+    }
+
+    /**
+     * Читает ответ SWAPI из массива байт за один проход.
+     *
+     * @param content тело ответа
+     * @param dtoClass класс DTO для result.properties
+     * @param <T> тип DTO
+     * @return поле message и DTO из result.properties
+     * @throws IOException при неверном JSON
+     */
+    public static <T> Decoded<T> decode(byte[] content, Class<T> dtoClass) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(content)) {
+            return decode(parser, dtoClass);
+        }
+    }
+
+    private static <T> Decoded<T> decode(JsonParser parser, Class<T> dtoClass) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Ожидался JSON объект в корне ответа");
+        }
+
+        ObjectReader reader = readerFor(dtoClass);
+        String message = null;
+        T properties = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+
+            if ("message".equals(field) && token == JsonToken.VALUE_STRING) {
+                message = parser.getText();
+            } else if ("result".equals(field) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String resultField = parser.currentName();
+                    JsonToken resultToken = parser.nextToken();
+                    if ("properties".equals(resultField) && resultToken == JsonToken.START_OBJECT) {
+                        properties = reader.readValue(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new Decoded<>(message, properties);
+    }
+
+    /**
+     * Читает страницу списка ресурсов из потока за один проход.
+     * Каждая запись results преобразуется в DTO сразу при чтении.
+     *
+     * @param inputStream поток с телом ответа
+     * @param dtoClass класс DTO для results[].properties
+     * @param <T> тип DTO
+     * @return страница с записями
+     * @throws IOException при ошибке чтения или неверном JSON
+     */
+    public static <T> Page<T> decodePage(InputStream inputStream, Class<T> dtoClass) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Ожидался JSON объект в корне ответа");
+            }
+
+            ObjectReader reader = readerFor(dtoClass);
+            String message = null;
+            int totalRecords = 0;
+            int totalPages = 0;
+            List<PageEntry<T>> results = new ArrayList<>();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+
+                if ("message".equals(field) && token == JsonToken.VALUE_STRING) {
+                    message = parser.getText();
+                } else if ("total_records".equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                    totalRecords = parser.getIntValue();
+                } else if ("total_pages".equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                    totalPages = parser.getIntValue();
+                } else if ("results".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        PageEntry<T> entry = decodePageEntry(parser, reader);
+                        if (entry != null) {
+                            results.add(entry);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new Page<>(message, totalRecords, totalPages, results);
+        }
+    }
+
+    /**
+     * Читает одну запись results, парсер стоит на ее открывающей скобке.
+     *
+     * @param parser потоковый парсер
+     * @param reader reader для DTO
+     * @param <T> тип DTO
+     * @return запись либо null, если в ней нет uid или properties
+     * @throws IOException при неверном JSON
+     */
+    private static <T> PageEntry<T> decodePageEntry(JsonParser parser, ObjectReader reader) throws IOException {
+        int uid = -1;
+        T properties = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("uid".equals(field) && token == JsonToken.VALUE_STRING) {
+                try {
+                    uid = Integer.parseInt(parser.getText());
+                } catch (NumberFormatException e) {
+                    uid = -1;
+                }
+            } else if ("uid".equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                uid = parser.getIntValue();
+            } else if ("properties".equals(field) && token == JsonToken.START_OBJECT) {
+                properties = reader.readValue(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return uid >= 0 && properties != null ? new PageEntry<>(uid, properties) : null;
+    }
+
+    /**
+     * Преобразует DTO, сохраненное отдельно от ответа, обратно в объект.
+     *
+     * @param content JSON DTO
+     * @param dtoClass класс DTO
+     * @param <T> тип DTO
+     * @return объект DTO
+     * @throws IOException при неверном JSON
+     */
+    public static <T> T readDto(byte[] content, Class<T> dtoClass) throws IOException {
+        return readerFor(dtoClass).readValue(content);
+    }
+
+    /**
+     * Сериализует DTO в JSON.
+     *
+     * @param value объект DTO
+     * @return JSON в кодировке UTF-8
+     * @throws IOException при ошибке сериализации
+     */
+    public static byte[] writeDto(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+}
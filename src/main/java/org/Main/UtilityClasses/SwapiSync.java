@@ -0,0 +1,323 @@
+package org.Main.UtilityClasses;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.Main.HelperClasses.PersonInfoDTO;
+import org.Main.HelperClasses.PlanetInfoDTO;
+import org.Main.HelperClasses.StarshipInfoDTO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Синхронизирует персонажей, планеты и корабли SWAPI с локальным снимком.
+ * Все три ресурса обходятся параллельно по страницам списка с полными данными сущностей.
+ * Измененные по полю edited записи сохраняются в кэш и постоянное хранилище клиента,
+ * после чего каталоги поиска пересобираются из снимка.
+ */
+public class SwapiSync {
+    /** Логгер для записи событий синхронизации */
+    private static final Logger logger = LogManager.getLogger(SwapiSync.class);
+
+    /** Количество записей на странице списка */
+    private static final int PAGE_SIZE = 100;
+
+    /** Объект Jackson для чтения и записи снимка */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Запись снимка: данные, по которым определяется изменение сущности.
+     *
+     * @param id идентификатор сущности
+     * @param name имя сущности
+     * @param edited время последнего изменения в SWAPI
+     */
+    public record SnapshotRecord(int id, String name, String edited) {}
+
+    /**
+     * Итог синхронизации одного ресурса.
+     *
+     * @param resource путь ресурса
+     * @param total количество записей в SWAPI
+     * @param updated количество новых и измененных записей
+     * @param removed количество записей, исчезнувших из SWAPI
+     */
+    public record Result(String resource, int total, int updated, int removed) {}
+
+    /**
+     * Описание синхронизируемого ресурса.
+     *
+     * @param type тип ресурса
+     * @param catalogPath путь к каталогу поиска
+     * @param name извлечение имени из DTO
+     * @param edited извлечение времени изменения из DTO
+     * @param <T> тип DTO
+     */
+    private record Resource<T>(SwapiClient.ResourceType<T> type, String catalogPath,
+                               Function<T, String> name, Function<T, String> edited) {}
+
+    /** Синхронизируемые ресурсы */
+    private static final List<Resource<?>> RESOURCES = List.of(
+            new Resource<>(SwapiClient.ResourceType.PEOPLE, CatalogIndex.PEOPLE_CATALOG,
+                    PersonInfoDTO::name, PersonInfoDTO::edited),
+            new Resource<>(SwapiClient.ResourceType.PLANETS, CatalogIndex.PLANETS_CATALOG,
+                    PlanetInfoDTO::name, PlanetInfoDTO::edited),
+            new Resource<>(SwapiClient.ResourceType.STARSHIPS, CatalogIndex.STARSHIPS_CATALOG,
+                    StarshipInfoDTO::name, StarshipInfoDTO::edited)
+    );
+
+    /** Клиент SWAPI */
+    private final SwapiClient swapiClient;
+
+    /** Каталог снимка */
+    private final Path snapshotDirectory;
+
+    /**
+     * Создает синхронизатор.
+     *
+     * @param swapiClient клиент SWAPI, в кэш и хранилище которого сохраняются сущности
+     * @param snapshotDirectory каталог для файлов снимка
+     */
+    public SwapiSync(SwapiClient swapiClient, Path snapshotDirectory) {
+        this.swapiClient = swapiClient;
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    /**
+     * Синхронизирует все ресурсы параллельно и пересобирает каталоги поиска.
+     *
+     * @return future с итогами по каждому ресурсу, завершается с ошибкой если хотя бы один ресурс не получен
+     */
+    public CompletableFuture<List<Result>> syncAll() {
+        List<CompletableFuture<Result>> futures = new ArrayList<>();
+        for (Resource<?> resource : RESOURCES) {
+            futures.add(sync(resource));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    CatalogIndex.invalidate();
+                    return futures.stream().map(CompletableFuture::join).toList();
+                });
+    }
+
+    /**
+     * Синхронизирует один ресурс: получает первую страницу, затем остальные параллельно.
+     *
+     * @param resource описание ресурса
+     * @param <T> тип DTO
+     * @return future с итогом синхронизации
+     */
+    private <T> CompletableFuture<Result> sync(Resource<T> resource) {
+        SwapiClient.ResourceType<T> type = resource.type();
+        return swapiClient.fetchPageAsync(type, 1, PAGE_SIZE).thenCompose(first -> {
+            List<CompletableFuture<SwapiResponseDecoder.Page<T>>> pages = new ArrayList<>();
+            pages.add(CompletableFuture.completedFuture(first));
+            for (int page = 2; page <= first.totalPages(); page++) {
+                pages.add(swapiClient.fetchPageAsync(type, page, PAGE_SIZE));
+            }
+            return CompletableFuture.allOf(pages.toArray(CompletableFuture[]::new))
+                    .thenApply(ignored -> {
+                        List<SwapiResponseDecoder.PageEntry<T>> entries = new ArrayList<>();
+                        for (CompletableFuture<SwapiResponseDecoder.Page<T>> page : pages) {
+                            entries.addAll(page.join().results());
+                        }
+                        try {
+                            return apply(resource, entries);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Сравнивает полученные записи со снимком, сохраняет измененные и пересобирает каталог.
+     *
+     * @param resource описание ресурса
+     * @param entries все записи ресурса
+     * @param <T> тип DTO
+     * @return итог синхронизации
+     * @throws IOException при ошибке записи снимка или каталога
+     */
+    private <T> Result apply(Resource<T> resource, List<SwapiResponseDecoder.PageEntry<T>> entries) throws IOException {
+        SwapiClient.ResourceType<T> type = resource.type();
+        Map<Integer, SnapshotRecord> previous = readSnapshot(type);
+        Map<Integer, SnapshotRecord> current = new TreeMap<>();
+        int updated = 0;
+
+        for (SwapiResponseDecoder.PageEntry<T> entry : entries) {
+            T dto = entry.properties();
+            SnapshotRecord record = new SnapshotRecord(entry.uid(), resource.name().apply(dto), resource.edited().apply(dto));
+            SnapshotRecord old = previous.get(entry.uid());
+            if (old == null || !Objects.equals(old.edited(), record.edited())) {
+                swapiClient.storeEntity(type, entry.uid(), dto);
+                updated++;
+            }
+            current.put(entry.uid(), record);
+        }
+
+        int removed = 0;
+        for (Integer id : previous.keySet()) {
+            if (!current.containsKey(id)) {
+                removed++;
+            }
+        }
+
+        writeSnapshot(type, current);
+        writeCatalog(resource.catalogPath(), current);
+        logger.info("Ресурс {} синхронизирован: всего {}, обновлено {}, удалено {}",
+                type.getPath(), current.size(), updated, removed);
+        return new Result(type.getPath(), current.size(), updated, removed);
+    }
+
+    /**
+     * Читает снимок ресурса.
+     *
+     * @param type тип ресурса
+     * @return записи снимка по ID, пустые если снимка еще нет
+     * @throws IOException при ошибке чтения
+     */
+    private Map<Integer, SnapshotRecord> readSnapshot(SwapiClient.ResourceType<?> type) throws IOException {
+        Path file = snapshotFile(type);
+        Map<Integer, SnapshotRecord> records = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            List<SnapshotRecord> list = objectMapper.readValue(file.toFile(), new TypeReference<List<SnapshotRecord>>() {});
+            for (SnapshotRecord record : list) {
+                records.put(record.id(), record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Записывает снимок ресурса.
+     *
+     * @param type тип ресурса
+     * @param records записи снимка
+     * @throws IOException при ошибке записи
+     */
+    private void writeSnapshot(SwapiClient.ResourceType<?> type, Map<Integer, SnapshotRecord> records) throws IOException {
+        writeAtomically(snapshotFile(type), objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsBytes(new ArrayList<>(records.values())));
+    }
+
+    /**
+     * Пересобирает каталог поиска: записи вручную составленного каталога сохраняют свой порядок
+     * и варианты имен, новые записи добавляются в конец по возрастанию ID.
+     *
+     * @param catalogPath путь к каталогу в ресурсах
+     * @param records записи снимка
+     * @throws IOException при ошибке чтения или записи
+     */
+    private static void writeCatalog(String catalogPath, Map<Integer, SnapshotRecord> records) throws IOException {
+        Map<Integer, List<String>> curated = new LinkedHashMap<>();
+        try (InputStream inputStream = SwapiSync.class.getClassLoader().getResourceAsStream(catalogPath)) {
+            if (inputStream != null) {
+                for (JsonNode object : objectMapper.readTree(inputStream)) {
+                    List<String> names = new ArrayList<>();
+                    for (JsonNode nameNode : object.path("strings")) {
+                        names.add(nameNode.asText());
+                    }
+                    curated.put(object.path("id").asInt(), names);
+                }
+            }
+        }
+
+        ArrayNode catalog = objectMapper.createArrayNode();
+        for (Map.Entry<Integer, List<String>> entry : curated.entrySet()) {
+            SnapshotRecord record = records.get(entry.getKey());
+            if (record != null) {
+                catalog.add(catalogEntry(record, entry.getValue()));
+            }
+        }
+        for (SnapshotRecord record : records.values()) {
+            if (!curated.containsKey(record.id())) {
+                catalog.add(catalogEntry(record, List.of()));
+            }
+        }
+
+        writeAtomically(CatalogIndex.syncedCatalogPath(catalogPath),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(catalog));
+    }
+
+    /**
+     * Создает запись каталога, добавляя имя из SWAPI, если его нет среди вариантов.
+     *
+     * @param record запись снимка
+     * @param curatedNames варианты имен из вручную составленного каталога
+     * @return JSON запись каталога
+     */
+    private static ObjectNode catalogEntry(SnapshotRecord record, List<String> curatedNames) {
+        ObjectNode object = objectMapper.createObjectNode();
+        object.put("id", record.id());
+        ArrayNode strings = object.putArray("strings");
+        boolean hasName = record.name() == null;
+        for (String name : curatedNames) {
+            hasName |= name.equalsIgnoreCase(record.name());
+        }
+        if (!hasName) {
+            strings.add(record.name());
+        }
+        curatedNames.forEach(strings::add);
+        return object;
+    }
+
+    private Path snapshotFile(SwapiClient.ResourceType<?> type) {
+        return snapshotDirectory.resolve("snapshot-" + type.getPath() + ".json");
+    }
+
+    /**
+     * Записывает файл через временный, чтобы прерванная запись не повредила прежний снимок.
+     *
+     * @param file путь к файлу
+     * @param content содержимое
+     * @throws IOException при ошибке записи
+     */
+    private static void writeAtomically(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, content);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Запускает синхронизацию из командной строки.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        boolean success = true;
+        try (SwapiClient swapiClient = new SwapiClient()) {
+            List<Result> results = new SwapiSync(swapiClient, SwapiClient.storeDirectory()).syncAll().join();
+            for (Result result : results) {
+                System.out.println(result.resource() + ": всего " + result.total()
+                        + ", обновлено " + result.updated() + ", удалено " + result.removed());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Синхронизация не выполнена: {}", e.getMessage());
+            success = false;
+        } finally {
+            SwapiTransport.shared().close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
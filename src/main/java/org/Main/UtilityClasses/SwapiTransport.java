@@ -0,0 +1,132 @@
+package org.Main.UtilityClasses;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Общий для всего приложения HTTP транспорт.
+ * Один {@link HttpClient} с предпочтением HTTP/2 переиспользует соединения и TLS сессии
+ * между всеми запросами, а обработка ответов выполняется в виртуальных потоках.
+ */
+public final class SwapiTransport implements AutoCloseable {
+    /** Логгер для записи событий транспорта */
+    private static final Logger logger = LogManager.getLogger(SwapiTransport.class);
+
+    /** Общий экземпляр, создается при первом обращении */
+    private static volatile SwapiTransport shared;
+
+    /** HTTP клиент */
+    private final HttpClient httpClient;
+
+    /** Исполнитель для обработки ответов, по виртуальному потоку на задачу */
+    private final ExecutorService executor;
+
+    /**
+     * Создает транспорт с заданными настройками.
+     * Размер пула и время жизни соединений задаются системными свойствами JDK HTTP клиента,
+     * поэтому они применяются только если клиент создается в процессе впервые.
+     *
+     * @param connectTimeout таймаут установки соединения
+     * @param connectionPoolSize максимальное количество простаивающих HTTP/1.1 соединений, 0 без ограничения
+     * @param keepAlive время жизни простаивающего соединения
+     */
+    public SwapiTransport(Duration connectTimeout, int connectionPoolSize, Duration keepAlive) {
+        setIfAbsent("jdk.httpclient.connectionPoolSize", String.valueOf(connectionPoolSize));
+        setIfAbsent("jdk.httpclient.keepalive.timeout", String.valueOf(keepAlive.toSeconds()));
+
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Возвращает общий транспорт приложения.
+     * Настройки берутся из свойств swapi.connectTimeoutMs, swapi.pool.size и swapi.pool.keepAliveSec.
+     *
+     * @return общий транспорт
+     */
+    public static SwapiTransport shared() {
+        SwapiTransport transport = shared;
+        if (transport == null) {
+            synchronized (SwapiTransport.class) {
+                transport = shared;
+                if (transport == null) {
+                    transport = new SwapiTransport(
+                            Duration.ofMillis(Long.getLong("swapi.connectTimeoutMs", 10_000)),
+                            Integer.getInteger("swapi.pool.size", 16),
+                            Duration.ofSeconds(Long.getLong("swapi.pool.keepAliveSec", 300)));
+                    shared = transport;
+                }
+            }
+        }
+        return transport;
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    /**
+     * Возвращает HTTP клиент транспорта.
+     *
+     * @return HTTP клиент
+     */
+    public HttpClient getHttpClient() { return httpClient; }
+
+    /**
+     * Заранее устанавливает соединение с сервером, чтобы первый пользовательский запрос
+     * не ждал установки TCP и TLS соединения.
+     *
+     * @param uri адрес сервера
+     * @return future, завершающийся после ответа сервера; ошибки только записываются в журнал
+     */
+    public CompletableFuture<Void> prewarm(URI uri) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(Duration.ofSeconds(10))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        long startNanos = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        logger.warn("Не удалось заранее подключиться к {}: {}", uri, error.getMessage());
+                    } else {
+                        logger.info("Соединение с {} установлено заранее за {} мс ({})", uri,
+                                (System.nanoTime() - startNanos) / 1_000_000, response.version());
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Закрывает HTTP клиент и исполнитель.
+     * Если закрывается общий транспорт, следующий вызов {@link #shared()} создаст новый.
+     */
+    @Override
+    public void close() {
+        synchronized (SwapiTransport.class) {
+            if (shared == this) {
+                shared = null;
+            }
+        }
+        httpClient.close();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,56 @@
+package org.Main.UtilityClasses;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка BK-дерева против полного перебора каталога.
+ */
+class BKTreeTest {
+
+    @Test
+    void findWithinDistanceMatchesLinearScan() throws IOException {
+        Random random = new Random(2);
+        for (int round = 0; round < 20; round++) {
+            CatalogIndex catalog = CatalogIndex.get(TestCatalogs.random(random, 1 + random.nextInt(200)));
+            BKTree tree = catalog.getBKTree();
+            for (int q = 0; q < 30; q++) {
+                String query = TestCatalogs.query(random);
+                int maxDistance = random.nextInt(6) - 1;
+                List<String> expected = TestCatalogs.bruteForce(catalog, query, maxDistance);
+                assertEquals(expected, TestCatalogs.describe(tree.findWithinDistance(query, maxDistance)),
+                        () -> "запрос '" + query + "', расстояние " + maxDistance);
+            }
+        }
+    }
+
+    @Test
+    void findNearestMatchesLinearScanIncludingTies() throws IOException {
+        Random random = new Random(3);
+        for (int round = 0; round < 20; round++) {
+            CatalogIndex catalog = CatalogIndex.get(TestCatalogs.random(random, 1 + random.nextInt(200)));
+            BKTree tree = catalog.getBKTree();
+            for (int q = 0; q < 30; q++) {
+                String query = TestCatalogs.query(random);
+                int k = random.nextInt(12);
+                List<String> expected = TestCatalogs.bruteForceTop(catalog, query, k);
+                assertEquals(expected, TestCatalogs.describe(tree.findNearest(query, k)),
+                        () -> "запрос '" + query + "', k " + k);
+            }
+        }
+    }
+
+    @Test
+    void findNearestPrefersEarlierEntryOnEqualDistance() throws IOException {
+        // Все записи на расстоянии 1 от запроса; сужение радиуса не должно вытеснить ранние записи
+        CatalogIndex catalog = CatalogIndex.get(TestCatalogs.write(List.of(
+                List.of("lux"), List.of("lub"), List.of("luk", "lun"), List.of("luc"), List.of("lu"))));
+        assertEquals(List.of("1:1", "2:1"), TestCatalogs.describe(catalog.getBKTree().findNearest("lua", 2)));
+        assertEquals(List.of("5:1", "1:2"), TestCatalogs.describe(catalog.getBKTree().findNearest("l", 2)));
+    }
+}
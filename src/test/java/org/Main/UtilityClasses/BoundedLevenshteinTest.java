@@ -0,0 +1,65 @@
+package org.Main.UtilityClasses;
+
+import info.debatty.java.stringsimilarity.Levenshtein;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка расстояния с ограничением против полного расстояния Левенштейна.
+ */
+class BoundedLevenshteinTest {
+    /** Полное расстояние для сравнения */
+    private final Levenshtein lev = new Levenshtein();
+
+    @Test
+    void matchesUnboundedDistanceAtInsideAndBeyondLimit() {
+        Random random = new Random(5);
+        for (int i = 0; i < 20000; i++) {
+            String a = randomString(random);
+            String b = randomString(random);
+            int exact = (int) lev.distance(a, b);
+            for (int limit : new int[]{exact - 1, exact, exact + 1, random.nextInt(12)}) {
+                int expected = exact <= limit ? exact : limit + 1;
+                assertEquals(expected, BoundedLevenshtein.distance(a, b, limit),
+                        "'" + a + "' / '" + b + "', ограничение " + limit);
+            }
+        }
+    }
+
+    @Test
+    void charRangeOverloadReadsOnlyItsRange() {
+        Random random = new Random(6);
+        for (int i = 0; i < 5000; i++) {
+            String prefix = randomString(random);
+            String a = randomString(random);
+            String suffix = randomString(random);
+            char[] chars = (prefix + a + suffix).toCharArray();
+            String b = randomString(random);
+            int limit = random.nextInt(10);
+            assertEquals(BoundedLevenshtein.distance(a, b, limit),
+                    BoundedLevenshtein.distance(chars, prefix.length(), a.length(), b, limit),
+                    "'" + a + "' в '" + new String(chars) + "' / '" + b + "'");
+        }
+    }
+
+    @Test
+    void handlesEmptyStringsAndNegativeLimit() {
+        assertEquals(0, BoundedLevenshtein.distance("", "", 0));
+        assertEquals(3, BoundedLevenshtein.distance("", "abc", 3));
+        assertEquals(3, BoundedLevenshtein.distance("abc", "", 2));
+        assertEquals(0, BoundedLevenshtein.distance("abc", "abc", -1));
+        assertEquals(2, BoundedLevenshtein.distance("kitten", "sitting", 1));
+        assertEquals(3, BoundedLevenshtein.distance("kitten", "sitting", 3));
+    }
+
+    private static String randomString(Random random) {
+        char[] chars = new char[random.nextInt(9)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(chars);
+    }
+}
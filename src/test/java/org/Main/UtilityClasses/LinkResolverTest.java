@@ -0,0 +1,149 @@
+package org.Main.UtilityClasses;
+
+import com.sun.net.httpserver.HttpServer;
+import org.Main.HelperClasses.ResourceNameDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка общего ограничения запросов, удаления повторов между вызовами разрешителя ссылок
+ * и разрешения длинной очереди ссылок из кэша.
+ */
+class LinkResolverTest {
+
+    private static final int PARALLELISM = 2;
+
+    private HttpServer server;
+    private SwapiTransport transport;
+    private SwapiClient swapiClient;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                String id = path.substring(path.lastIndexOf('/') + 1);
+                byte[] body = ("{\"message\":\"ok\",\"result\":{\"properties\":{\"title\":\"Film " + id + "\"}}}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+
+        transport = new SwapiTransport(Duration.ofSeconds(5), 0, Duration.ofSeconds(5));
+        swapiClient = new SwapiClient(new EntityCache(64, Duration.ofMinutes(1)), null, ResiliencePolicy.none(),
+                transport, "http://127.0.0.1:" + server.getAddress().getPort() + "/api/");
+    }
+
+    @AfterEach
+    void stopServer() {
+        transport.close();
+        server.stop(0);
+    }
+
+    @Test
+    void limitIsSharedAcrossCallsAndPendingLinksAreNotRequestedTwice() {
+        LinkResolver resolver = new LinkResolver(swapiClient, PARALLELISM);
+        String base = swapiClient.getBaseUrl();
+
+        // Несколько вкладок одновременно разрешают пересекающиеся ссылки
+        List<CompletableFuture<Map<String, String>>> calls = new ArrayList<>();
+        for (int tab = 0; tab < 4; tab++) {
+            List<String> links = new ArrayList<>();
+            for (int id = 1; id <= 6; id++) {
+                links.add(base + "films/" + id);
+            }
+            links.add(base + "films/" + (10 + tab));
+            calls.add(resolver.resolve(links));
+        }
+
+        for (int tab = 0; tab < calls.size(); tab++) {
+            Map<String, String> names = calls.get(tab).orTimeout(10, TimeUnit.SECONDS).join();
+            assertEquals(7, names.size());
+            assertEquals("Film 3", names.get(base + "films/3"));
+            assertEquals("Film " + (10 + tab), names.get(base + "films/" + (10 + tab)));
+        }
+        assertTrue(maxActive.get() <= PARALLELISM, "одновременных запросов: " + maxActive.get());
+        assertEquals(10, requests.size());
+        requests.forEach((path, count) -> assertEquals(1, count.get(), path));
+    }
+
+    @Test
+    void failedLinksAreOmitted() {
+        LinkResolver resolver = new LinkResolver(swapiClient, PARALLELISM);
+        String base = swapiClient.getBaseUrl();
+
+        Map<String, String> names = resolver.resolve(List.of(base + "films/1", base + "films/x", base + "ships/1"))
+                .orTimeout(10, TimeUnit.SECONDS).join();
+        assertEquals(Map.of(base + "films/1", "Film 1"), names);
+    }
+
+    @Test
+    void cachedLinksDoNotGrowStack() throws InterruptedException {
+        int count = 20000;
+        EntityCache entityCache = new EntityCache(count, Duration.ofMinutes(1));
+        SwapiClient offlineClient = new SwapiClient(entityCache, null, ResiliencePolicy.none(),
+                transport, "http://127.0.0.1:1/api/");
+        offlineClient.setOfflineMode(true);
+        List<String> links = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            entityCache.put(SwapiClient.ResourceType.FILMS, id, new ResourceNameDTO(null, "Film " + id));
+            links.add(offlineClient.getBaseUrl() + "films/" + id);
+        }
+
+        // Все результаты готовы сразу: исполнитель очереди не должен уходить в рекурсию
+        AtomicReference<Object> outcome = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                outcome.set(new LinkResolver(offlineClient, 1).resolve(links).join());
+            } catch (Throwable e) {
+                outcome.set(e);
+            }
+        }, "small-stack", 256 * 1024);
+        thread.setDaemon(true); // При переполнении стека исполнитель теряется и join не завершается
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+
+        assertTrue(outcome.get() instanceof Map<?, ?>, String.valueOf(outcome.get()));
+        Map<?, ?> names = (Map<?, ?>) outcome.get();
+        assertEquals(count, names.size());
+        assertEquals("Film " + count, names.get(offlineClient.getBaseUrl() + "films/" + count));
+    }
+}
@@ -0,0 +1,51 @@
+package org.Main.UtilityClasses;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Проверка ключей сравнения: регистр, транслитерация кириллицы и удаление диакритических знаков.
+ */
+class MatchKeysTest {
+
+    /** Пары: исходная строка и ожидаемый ключ */
+    private static final String[][] CASES = {
+            {"LUKE Skywalker", "luke skywalker"},
+            {"R2-D2", "r2-d2"},
+            {"Люк Скайуокер", "lyuk skayuoker"},
+            {"ПАДМЕ", "padme"},
+            {"Ёлка", "elka"},
+            {"ёж", "ezh"},
+            {"Объект", "obekt"},
+            {"Щит", "shchit"},
+            {"Padmé", "padme"},
+            {"ZOË", "zoe"},
+            {"Padme\u0301", "padme"}, // уже разложенная форма
+            {"Ñandú", "nandu"},
+            {"Ёлка Padmé", "elka padme"},
+            {"", ""},
+    };
+
+    @Test
+    void normalizesTable() {
+        for (String[] testCase : CASES) {
+            assertEquals(testCase[1], MatchKeys.normalize(testCase[0]), "'" + testCase[0] + "'");
+        }
+    }
+
+    @Test
+    void keysAreStable() {
+        for (String[] testCase : CASES) {
+            assertEquals(testCase[1], MatchKeys.normalize(testCase[1]), "'" + testCase[1] + "'");
+        }
+    }
+
+    @Test
+    void lowercaseAsciiIsReturnedAsIs() {
+        for (String value : new String[]{"luke skywalker", "r2-d2", "c-3po (droid)", ""}) {
+            assertSame(value, MatchKeys.normalize(value), "'" + value + "'");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.Main.UtilityClasses;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка поиска по мере ввода против линейного поиска k лучших.
+ * Последовательности запросов имитируют набор, удаление символов и правку в середине,
+ * чтобы проверить переиспользование и укорачивание строк матрицы между запросами.
+ */
+class PrefixTrieTest {
+    /** Символы, которые добавляются к запросу; из них же состоят имена каталога */
+    private static final String TYPED = "anklueswoy ";
+
+    @Test
+    void sessionMatchesLinearTopEntriesWhileTyping() throws IOException {
+        Random random = new Random(11);
+        for (int round = 0; round < 15; round++) {
+            String path = TestCatalogs.random(random, 1 + random.nextInt(300));
+            SearchTools.Session session = new SearchTools.Session();
+            String query = "";
+            for (int step = 0; step < 200; step++) {
+                query = edit(random, query);
+                int k = 1 + random.nextInt(8);
+                String current = query;
+                assertEquals(TestCatalogs.describe(SearchTools.searchTopEntries(path, query, k)),
+                        TestCatalogs.describe(session.searchTopEntries(path, query, k)),
+                        () -> "запрос '" + current + "', k " + k);
+            }
+        }
+    }
+
+    @Test
+    void matcherMatchesBruteForceIncludingTies() throws IOException {
+        Random random = new Random(12);
+        for (int round = 0; round < 10; round++) {
+            CatalogIndex catalog = CatalogIndex.get(TestCatalogs.random(random, 1 + random.nextInt(200)));
+            PrefixTrie.Matcher matcher = catalog.getPrefixTrie().newMatcher();
+            String query = "";
+            for (int step = 0; step < 100; step++) {
+                query = edit(random, query);
+                int k = random.nextInt(10);
+                String current = query;
+                assertEquals(TestCatalogs.bruteForceTop(catalog, query, k),
+                        TestCatalogs.describe(matcher.findNearest(query, k)),
+                        () -> "запрос '" + current + "', k " + k);
+            }
+        }
+    }
+
+    @Test
+    void sessionRestartsAfterCatalogReload() throws IOException {
+        String path = TestCatalogs.write(List.of(List.of("luke"), List.of("leia")));
+        SearchTools.Session session = new SearchTools.Session();
+        assertEquals(List.of("1:0"), TestCatalogs.describe(session.searchTopEntries(path, "luke", 1)));
+
+        CatalogIndex.invalidate();
+        assertEquals(List.of("2:0", "1:3"), TestCatalogs.describe(session.searchTopEntries(path, "leia", 2)));
+    }
+
+    /**
+     * Изменяет запрос как пользователь: чаще дописывает символ, реже стирает или правит.
+     */
+    private static String edit(Random random, String query) {
+        int action = random.nextInt(10);
+        if (action < 6 || query.isEmpty()) {
+            return query + TYPED.charAt(random.nextInt(TYPED.length()));
+        } else if (action < 8) {
+            return query.substring(0, query.length() - 1);
+        } else if (action < 9) {
+            int position = random.nextInt(query.length());
+            return query.substring(0, position) + TYPED.charAt(random.nextInt(TYPED.length()))
+                    + query.substring(position + 1);
+        }
+        return query.substring(0, random.nextInt(query.length() + 1));
+    }
+}
@@ -0,0 +1,168 @@
+package org.Main.UtilityClasses;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка дублирующих запросов: выключатель, отмена проигравшей попытки и ошибка одной из попыток.
+ */
+class ResilientCallerTest {
+
+    /**
+     * Настройки, при которых дубль отправляется через 20 мс ожидания ответа.
+     */
+    private static ResiliencePolicy hedgingPolicy() {
+        return new ResiliencePolicy(Duration.ofMillis(40), 0, Duration.ZERO, Duration.ZERO,
+                true, 0.95, Duration.ofMillis(20), 1, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void sendsHedgeWhileBreakerIsClosed() throws Exception {
+        ResilientCaller caller = new ResilientCaller(hedgingPolicy());
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        CompletableFuture<String> result = caller.execute("people/1",
+                () -> calls.incrementAndGet() == 1 ? primary : CompletableFuture.completedFuture("hedge"));
+
+        assertEquals("hedge", result.get());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void skipsHedgeWhenBreakerOpenedMeanwhile() throws Exception {
+        ResilientCaller caller = new ResilientCaller(hedgingPolicy());
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        CompletableFuture<String> result = caller.execute("people/1", () -> {
+            calls.incrementAndGet();
+            return primary;
+        });
+        // Другие запросы разомкнули выключатель, пока основной ждет ответа
+        caller.getCircuitBreaker().recordFailure();
+
+        Thread.sleep(150);
+        assertEquals(1, calls.get());
+        primary.complete("primary");
+        assertEquals("primary", result.get());
+    }
+
+    @Test
+    void cancelsLosingPrimaryExchangeWhenHedgeWins() throws Exception {
+        ResilientCaller caller = new ResilientCaller(hedgingPolicy());
+        List<CompletableFuture<String>> exchanges = new CopyOnWriteArrayList<>();
+        AtomicInteger decoded = new AtomicInteger();
+
+        CompletableFuture<String> result = caller.execute("people/1", () -> {
+            // Как в SwapiClient: попытка — зависимый этап над future HTTP обмена
+            CompletableFuture<String> exchange = new CompletableFuture<>();
+            exchanges.add(exchange);
+            CompletableFuture<String> attempt = exchange.thenApply(body -> {
+                decoded.incrementAndGet();
+                return body;
+            });
+            if (exchanges.size() == 2) {
+                exchange.complete("hedge");
+            }
+            return ResilientCaller.cancelSourceOnCancel(exchange, attempt);
+        });
+
+        assertEquals("hedge", result.get(5, TimeUnit.SECONDS));
+        // Проигравшая попытка отменяется сразу после завершения результата, в потоке победителя
+        awaitCancelled(exchanges.get(0), "обмен основной попытки не отменен");
+        exchanges.get(0).complete("primary");
+        assertEquals(1, decoded.get());
+    }
+
+    @Test
+    void cancelsLosingHedgeExchangeWhenPrimaryWins() throws Exception {
+        ResilientCaller caller = new ResilientCaller(hedgingPolicy());
+        List<CompletableFuture<String>> exchanges = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> result = caller.execute("people/1", () -> {
+            CompletableFuture<String> exchange = new CompletableFuture<>();
+            exchanges.add(exchange);
+            return ResilientCaller.cancelSourceOnCancel(exchange, exchange.thenApply(body -> body));
+        });
+        awaitAttempts(exchanges, 2);
+
+        exchanges.get(0).complete("primary");
+        assertEquals("primary", result.get(5, TimeUnit.SECONDS));
+        awaitCancelled(exchanges.get(1), "обмен дублирующей попытки не отменен");
+    }
+
+    @Test
+    void primaryFailureWhileHedgeIsSentWaitsForHedge() throws Exception {
+        ResilientCaller caller = new ResilientCaller(hedgingPolicy());
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> duplicate = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = caller.execute("people/1", () -> {
+            if (calls.incrementAndGet() == 1) {
+                return primary;
+            }
+            // Основная попытка падает уже после проверки перед отправкой дубля
+            primary.completeExceptionally(new SwapiClient.SwapiServerException("HTTP 503"));
+            return duplicate;
+        });
+        while (calls.get() < 2) {
+            Thread.sleep(5);
+        }
+
+        assertFalse(result.isDone(), "результат завершен, пока дубль еще в пути");
+        duplicate.complete("hedge");
+        assertEquals("hedge", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failsWhenPrimaryAndHedgeFail() throws Exception {
+        ResilientCaller caller = new ResilientCaller(hedgingPolicy());
+        List<CompletableFuture<String>> exchanges = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> result = caller.execute("people/1", () -> {
+            CompletableFuture<String> exchange = new CompletableFuture<>();
+            exchanges.add(exchange);
+            return exchange;
+        });
+        awaitAttempts(exchanges, 2);
+
+        exchanges.get(1).completeExceptionally(new SwapiClient.SwapiServerException("HTTP 502"));
+        Thread.sleep(20);
+        assertFalse(result.isDone(), "результат завершен, пока основная попытка еще в пути");
+        exchanges.get(0).completeExceptionally(new SwapiClient.SwapiServerException("HTTP 503"));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SwapiClient.SwapiServerException.class, error.getCause());
+    }
+
+    private static void awaitCancelled(CompletableFuture<?> exchange, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!exchange.isCancelled() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(exchange.isCancelled(), message);
+    }
+
+    private static void awaitAttempts(List<?> attempts, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (attempts.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, attempts.size());
+    }
+}
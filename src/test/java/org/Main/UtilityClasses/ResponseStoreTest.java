@@ -0,0 +1,150 @@
+package org.Main.UtilityClasses;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка восстановления хранилища после аварийного завершения, чтения при росте файла данных
+ * и совместного открытия одного каталога.
+ */
+class ResponseStoreTest {
+    /** Каталог хранилища */
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsEntriesWrittenAfterFileWasMapped() throws IOException {
+        try (ResponseStore store = new ResponseStore(directory)) {
+            store.put("people/1", bytes("luke"));
+            assertEquals("luke", text(store.get("people/1")));
+
+            // Второй записи нет в уже созданном отображении, оно должно быть обновлено
+            store.put("people/2", bytes("c-3po".repeat(1000)));
+            assertEquals("c-3po".repeat(1000), text(store.get("people/2")));
+            assertEquals("luke", text(store.get("people/1")));
+
+            store.put("people/1", bytes("luke skywalker"));
+            assertEquals("luke skywalker", text(store.get("people/1")));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void truncatesTornIndexTailAndKeepsIntactEntries() throws IOException {
+        try (ResponseStore store = new ResponseStore(directory)) {
+            store.put("people/1", bytes("luke"));
+            store.put("planets/1", bytes("tatooine"));
+        }
+        Path indexPath = directory.resolve("swapi-index.bin");
+        long intactLength = Files.size(indexPath);
+
+        // Недописанная запись индекса: ключ без смещения и длины
+        Files.write(indexPath, new byte[]{0, 9, 'p', 'e', 'o', 'p', 'l', 'e', '/', '2', 0, 0}, StandardOpenOption.APPEND);
+
+        try (ResponseStore store = new ResponseStore(directory)) {
+            assertEquals(intactLength, Files.size(indexPath));
+            assertEquals("luke", text(store.get("people/1")));
+            assertEquals("tatooine", text(store.get("planets/1")));
+            assertNull(store.get("people/2"));
+            store.put("people/2", bytes("c-3po"));
+        }
+
+        // Запись после обрезки не смещена остатком поврежденного хвоста
+        try (ResponseStore store = new ResponseStore(directory)) {
+            assertEquals(3, store.size());
+            assertEquals("c-3po", text(store.get("people/2")));
+        }
+    }
+
+    @Test
+    void dropsIndexEntriesPointingPastDataEnd() throws IOException {
+        try (ResponseStore store = new ResponseStore(directory)) {
+            store.put("people/1", bytes("luke"));
+            store.put("people/2", bytes("c-3po"));
+        }
+        // Данные последней записи не дошли до диска
+        try (FileChannel data = FileChannel.open(directory.resolve("swapi-data.bin"), StandardOpenOption.WRITE)) {
+            data.truncate(6);
+        }
+
+        try (ResponseStore store = new ResponseStore(directory)) {
+            assertEquals("luke", text(store.get("people/1")));
+            assertFalse(store.contains("people/2"));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void ignoresRecordsWithCorruptedOffsetsAtIndexTail() throws IOException {
+        try (ResponseStore store = new ResponseStore(directory)) {
+            store.put("people/1", bytes("luke"));
+        }
+        Path indexPath = directory.resolve("swapi-index.bin");
+        long intactLength = Files.size(indexPath);
+        ByteBuffer corrupted = ByteBuffer.allocate(2 + 8 + 8 + 4);
+        corrupted.putShort((short) 8).put(bytes("people/9")).putLong(-1).putInt(4);
+        Files.write(indexPath, corrupted.array(), StandardOpenOption.APPEND);
+
+        try (ResponseStore store = new ResponseStore(directory)) {
+            assertEquals(intactLength, Files.size(indexPath));
+            assertEquals(1, store.size());
+            assertEquals("luke", text(store.get("people/1")));
+        }
+    }
+
+    @Test
+    void secondStoreOnSameDirectoryIsReadOnly() throws IOException {
+        try (ResponseStore writer = new ResponseStore(directory)) {
+            writer.put("people/1", bytes("luke"));
+            assertFalse(writer.isReadOnly());
+
+            try (ResponseStore reader = new ResponseStore(directory)) {
+                assertTrue(reader.isReadOnly());
+                assertEquals("luke", text(reader.get("people/1")));
+
+                // Запись второго хранилища не должна попасть в файлы по смещениям первого
+                reader.put("people/2", bytes("c-3po"));
+                assertFalse(reader.contains("people/2"));
+                writer.put("planets/1", bytes("tatooine"));
+                assertEquals("luke", text(reader.get("people/1")));
+            }
+
+            // Закрытие хранилища только для чтения не снимает блокировку и не мешает записи
+            writer.put("people/3", bytes("r2-d2"));
+            try (ResponseStore reader = new ResponseStore(directory)) {
+                assertTrue(reader.isReadOnly());
+                assertEquals("r2-d2", text(reader.get("people/3")));
+            }
+        }
+
+        assertEquals("luke".length() + "tatooine".length() + "r2-d2".length(),
+                Files.size(directory.resolve("swapi-data.bin")));
+        try (ResponseStore store = new ResponseStore(directory)) {
+            assertFalse(store.isReadOnly());
+            assertEquals(3, store.size());
+            assertNull(store.get("people/2"));
+            assertEquals("tatooine", text(store.get("planets/1")));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] data) {
+        return data == null ? null : new String(data, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,184 @@
+package org.Main.UtilityClasses;
+
+import org.Main.HelperClasses.ItemHelperEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка параллельного поиска против последовательного поиска k лучших.
+ * Каталоги категорий подменяются случайными каталогами в каталоге снимка.
+ */
+class SearchEngineTest {
+    /** Размеры отрезков: 1 — результат собирается только слиянием, остальные не кратны размерам каталогов */
+    private static final int[] PARTITION_SIZES = {1, 2, 3, 7, 64};
+
+    @AfterEach
+    void restoreCatalogs() throws IOException {
+        for (SearchCategory category : SearchCategory.values()) {
+            Files.deleteIfExists(CatalogIndex.syncedCatalogPath(category.getCatalogPath()));
+        }
+        CatalogIndex.invalidate();
+    }
+
+    @Test
+    void matchesSequentialTopEntries() throws IOException {
+        Random random = new Random(21);
+        try (ForkJoinPool single = new ForkJoinPool(1); ForkJoinPool parallel = new ForkJoinPool(4)) {
+            for (int round = 0; round < 8; round++) {
+                for (SearchCategory category : SearchCategory.values()) {
+                    TestCatalogs.writeTo(category.getCatalogPath(), TestCatalogs.randomNames(random, random.nextInt(120)));
+                }
+                CatalogIndex.invalidate();
+
+                for (int q = 0; q < 25; q++) {
+                    String query = TestCatalogs.query(random);
+                    int k = 1 + random.nextInt(8);
+                    List<SearchCategory> categories = randomCategories(random);
+                    List<String> expectedMerged = sequentialMerged(query, categories, k);
+                    for (int partitionSize : PARTITION_SIZES) {
+                        for (ForkJoinPool pool : List.of(single, parallel)) {
+                            SearchEngine engine = new SearchEngine(pool, partitionSize);
+                            String context = "запрос '" + query + "', k " + k + ", отрезок " + partitionSize
+                                    + ", потоков " + pool.getParallelism();
+
+                            Map<SearchCategory, List<ItemHelperEntry>> byCategory =
+                                    engine.searchByCategory(query, categories, k);
+                            assertEquals(EnumSet.copyOf(categories), byCategory.keySet(), context);
+                            for (SearchCategory category : categories) {
+                                assertEquals(TestCatalogs.describe(
+                                                SearchTools.searchTopEntries(category.getCatalogPath(), query, k)),
+                                        TestCatalogs.describe(byCategory.get(category)), context + ", " + category);
+                            }
+                            assertEquals(expectedMerged, describeHits(engine.searchMerged(query, categories, k)), context);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void equalDistancesAreOrderedByCategoryThenCatalogPosition() throws IOException {
+        // Все записи всех категорий на одинаковом расстоянии, порядок решает только младшая часть ключа
+        List<List<String>> names = Collections.nCopies(40, List.of("lu"));
+        for (SearchCategory category : SearchCategory.values()) {
+            TestCatalogs.writeTo(category.getCatalogPath(), names);
+        }
+        CatalogIndex.invalidate();
+
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            for (int partitionSize : PARTITION_SIZES) {
+                SearchEngine engine = new SearchEngine(pool, partitionSize);
+                List<SearchCategory> all = List.of(SearchCategory.values());
+
+                Map<SearchCategory, List<ItemHelperEntry>> byCategory = engine.searchByCategory("la", all, 3);
+                for (SearchCategory category : all) {
+                    assertEquals(List.of("1:1", "2:1", "3:1"), TestCatalogs.describe(byCategory.get(category)),
+                            "отрезок " + partitionSize + ", " + category);
+                }
+
+                // Категории перечислены в обратном порядке, но порядок задает объявление SearchCategory
+                List<String> merged = describeHits(engine.searchMerged("la", all.reversed(), 42));
+                List<String> expected = new ArrayList<>();
+                for (SearchCategory category : all) {
+                    for (int id = 1; id <= 40 && expected.size() < 42; id++) {
+                        expected.add(category.getKey() + "/" + id + ":1");
+                    }
+                }
+                assertEquals(expected, merged, "отрезок " + partitionSize);
+            }
+        }
+    }
+
+    @Test
+    void duplicateCategoriesAreSearchedOnce() throws IOException {
+        TestCatalogs.writeTo(SearchCategory.PEOPLE.getCatalogPath(), List.of(List.of("luke"), List.of("leia")));
+        CatalogIndex.invalidate();
+        SearchEngine engine = new SearchEngine(ForkJoinPool.commonPool(), 1);
+        List<SearchCategory> twice = List.of(SearchCategory.PEOPLE, SearchCategory.PEOPLE);
+        assertEquals(List.of("people/1:0", "people/2:3"), describeHits(engine.searchMerged("luke", twice, 5)));
+    }
+
+    @Test
+    void packedKeyOrdersTiesByCategoryThenEntry() {
+        long bound = SearchEngine.key(3, SearchCategory.PLANETS, 10);
+        // При равном расстоянии лучше только запись, идущая раньше k-й лучшей
+        assertEquals(3, SearchEngine.limit(bound, SearchEngine.position(SearchCategory.PEOPLE, 500)));
+        assertEquals(3, SearchEngine.limit(bound, SearchEngine.position(SearchCategory.PLANETS, 9)));
+        assertEquals(2, SearchEngine.limit(bound, SearchEngine.position(SearchCategory.PLANETS, 10)));
+        assertEquals(2, SearchEngine.limit(bound, SearchEngine.position(SearchCategory.PLANETS, 11)));
+        assertEquals(2, SearchEngine.limit(bound, SearchEngine.position(SearchCategory.STARSHIPS, 0)));
+        assertEquals(Integer.MAX_VALUE - 1, SearchEngine.limit(SearchEngine.NO_BOUND, 0));
+
+        // Поля не перекрываются при наибольшем номере записи и большом расстоянии
+        long wide = SearchEngine.key(1 << 20, SearchCategory.PEOPLE, Integer.MAX_VALUE);
+        assertEquals(1 << 20, SearchEngine.limit(wide, SearchEngine.position(SearchCategory.PEOPLE, Integer.MAX_VALUE - 1)));
+        assertEquals((1 << 20) - 1, SearchEngine.limit(wide, SearchEngine.position(SearchCategory.PLANETS, 0)));
+        assertTrue(SearchEngine.key(0, SearchCategory.STARSHIPS, Integer.MAX_VALUE)
+                < SearchEngine.key(1, SearchCategory.PEOPLE, 0));
+    }
+
+    /**
+     * Общий рейтинг последовательным поиском: k лучших каждой категории, отсортированные по расстоянию
+     * и порядку объявления категорий.
+     */
+    private static List<String> sequentialMerged(String query, List<SearchCategory> categories, int k)
+            throws IOException {
+        List<ItemHelperEntry> entries = new ArrayList<>();
+        List<SearchCategory> owners = new ArrayList<>();
+        for (SearchCategory category : EnumSet.copyOf(categories)) {
+            for (ItemHelperEntry entry : SearchTools.searchTopEntries(category.getCatalogPath(), query, k)) {
+                entries.add(entry);
+                owners.add(category);
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            order.add(i);
+        }
+        // Внутри категории список уже упорядочен, устойчивая сортировка сохраняет этот порядок
+        order.sort((a, b) -> entries.get(a).getNameDistance() != entries.get(b).getNameDistance()
+                ? Integer.compare(entries.get(a).getNameDistance(), entries.get(b).getNameDistance())
+                : Integer.compare(owners.get(a).ordinal(), owners.get(b).ordinal()));
+
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, order.size()); i++) {
+            int index = order.get(i);
+            result.add(owners.get(index).getKey() + "/" + entries.get(index).getId() + ":"
+                    + entries.get(index).getNameDistance());
+        }
+        return result;
+    }
+
+    private static List<String> describeHits(List<SearchEngine.Hit> hits) {
+        return hits.stream()
+                .map(hit -> hit.category().getKey() + "/" + hit.entry().getId() + ":" + hit.entry().getNameDistance())
+                .toList();
+    }
+
+    private static List<SearchCategory> randomCategories(Random random) {
+        List<SearchCategory> categories = new ArrayList<>();
+        for (SearchCategory category : SearchCategory.values()) {
+            if (random.nextBoolean()) {
+                categories.add(category);
+            }
+        }
+        if (categories.isEmpty()) {
+            categories.add(SearchCategory.values()[random.nextInt(SearchCategory.values().length)]);
+        }
+        return categories;
+    }
+}
@@ -0,0 +1,40 @@
+package org.Main.UtilityClasses;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка разбора адресов сущностей HTTP сервиса.
+ */
+class SwapiHttpServiceTest {
+
+    @Test
+    void entityPathAcceptsTrailingSlash() throws IOException, InterruptedException {
+        SwapiClient swapiClient = new SwapiClient(new EntityCache(16, Duration.ofMinutes(1)), null);
+        swapiClient.setOfflineMode(true); // Без сохраненных данных сущность не найдена, но ID разобран
+        try (SwapiHttpService service = new SwapiHttpService(swapiClient, new InetSocketAddress("127.0.0.1", 0));
+             HttpClient httpClient = HttpClient.newHttpClient()) {
+            service.start();
+            String base = "http://127.0.0.1:" + service.getAddress().getPort();
+
+            assertEquals(404, status(httpClient, base + "/people/1"));
+            assertEquals(404, status(httpClient, base + "/people/1/"));
+            assertEquals(400, status(httpClient, base + "/people/abc/"));
+            assertEquals(400, status(httpClient, base + "/people/"));
+        }
+    }
+
+    private static int status(HttpClient httpClient, String uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
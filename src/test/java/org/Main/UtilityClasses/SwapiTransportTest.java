@@ -0,0 +1,33 @@
+package org.Main.UtilityClasses;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Проверка общего транспорта после закрытия.
+ */
+class SwapiTransportTest {
+
+    @Test
+    void sharedTransportIsRecreatedAfterClose() {
+        SwapiTransport first = SwapiTransport.shared();
+        assertSame(first, SwapiTransport.shared());
+
+        first.close();
+        SwapiTransport second = SwapiTransport.shared();
+        assertNotSame(first, second);
+        second.close();
+    }
+
+    @Test
+    void closingOtherTransportKeepsShared() {
+        SwapiTransport shared = SwapiTransport.shared();
+        new SwapiTransport(Duration.ofSeconds(1), 0, Duration.ofSeconds(1)).close();
+        assertSame(shared, SwapiTransport.shared());
+        shared.close();
+    }
+}
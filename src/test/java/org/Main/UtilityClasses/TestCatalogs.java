@@ -0,0 +1,192 @@
+package org.Main.UtilityClasses;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import info.debatty.java.stringsimilarity.Levenshtein;
+import org.Main.HelperClasses.ItemHelperEntry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Каталоги для тестов поиска и эталонный поиск полным перебором.
+ * Каталог записывается туда, где {@link CatalogIndex} ищет каталоги из локального снимка,
+ * каждый вызов создает новый путь, поэтому тесты не видят каталоги друг друга.
+ */
+final class TestCatalogs {
+    /** Слоги имен; их мало, чтобы у разных записей часто совпадали расстояния */
+    private static final String[] SYLLABLES = {"an", "ka", "lu", "ke", "sa", "ob", "wa", "yo"};
+
+    /** Номер следующего каталога */
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    static {
+        if (System.getProperty("swapi.cache.dir") == null) {
+            try {
+                System.setProperty("swapi.cache.dir", Files.createTempDirectory("swapi-test").toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private TestCatalogs() {
+    }
+
+    /**
+     * Записывает каталог с заданными именами. ID записи равен ее номеру плюс один.
+     *
+     * @param names варианты имен каждой записи
+     * @return путь для {@link CatalogIndex#get}
+     * @throws IOException при ошибке записи
+     */
+    static String write(List<List<String>> names) throws IOException {
+        String catalogPath = "Test/Catalog-" + counter.incrementAndGet() + ".json";
+        writeTo(catalogPath, names);
+        return catalogPath;
+    }
+
+    /**
+     * Записывает каталог с заданными именами по заданному пути, например вместо каталога категории.
+     * Загруженный ранее каталог по этому пути нужно сбросить через {@link CatalogIndex#invalidate()}.
+     *
+     * @param catalogPath путь для {@link CatalogIndex#get}
+     * @param names варианты имен каждой записи
+     * @throws IOException при ошибке записи
+     */
+    static void writeTo(String catalogPath, List<List<String>> names) throws IOException {
+        Path file = CatalogIndex.syncedCatalogPath(catalogPath);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ArrayNode catalog = objectMapper.createArrayNode();
+        for (int i = 0; i < names.size(); i++) {
+            ObjectNode object = catalog.addObject();
+            object.put("id", i + 1);
+            ArrayNode strings = object.putArray("strings");
+            names.get(i).forEach(strings::add);
+        }
+
+        Files.createDirectories(file.getParent());
+        objectMapper.writeValue(file.toFile(), catalog);
+    }
+
+    /**
+     * Записывает случайный каталог. Имена повторяются, встречаются записи без имен.
+     *
+     * @param random генератор
+     * @param size количество записей
+     * @return путь для {@link CatalogIndex#get}
+     * @throws IOException при ошибке записи
+     */
+    static String random(Random random, int size) throws IOException {
+        return write(randomNames(random, size));
+    }
+
+    /**
+     * Создает случайные имена каталога. Имена повторяются, встречаются записи без имен.
+     *
+     * @param random генератор
+     * @param size количество записей
+     * @return варианты имен каждой записи
+     */
+    static List<List<String>> randomNames(Random random, int size) {
+        List<List<String>> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<String> variants = new ArrayList<>();
+            int count = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(3);
+            for (int v = 0; v < count; v++) {
+                variants.add(name(random, 1 + random.nextInt(3)));
+            }
+            names.add(variants);
+        }
+        return names;
+    }
+
+    /**
+     * Создает случайный запрос из тех же слогов, что и имена.
+     *
+     * @param random генератор
+     * @return запрос
+     */
+    static String query(Random random) {
+        return name(random, random.nextInt(4)).toLowerCase();
+    }
+
+    /**
+     * Находит k ближайших записей полным перебором.
+     * При равном расстоянии раньше идет запись, раньше стоящая в каталоге.
+     *
+     * @param catalog каталог
+     * @param query поисковый запрос
+     * @param k количество записей
+     * @return записи в формате {@link #describe}
+     */
+    static List<String> bruteForceTop(CatalogIndex catalog, String query, int k) {
+        return bruteForce(catalog, query, Integer.MAX_VALUE).stream().limit(Math.max(k, 0)).toList();
+    }
+
+    /**
+     * Находит записи не дальше заданного расстояния полным перебором.
+     *
+     * @param catalog каталог
+     * @param query поисковый запрос
+     * @param maxDistance максимальное расстояние
+     * @return записи в формате {@link #describe}, отсортированные по расстоянию и номеру
+     */
+    static List<String> bruteForce(CatalogIndex catalog, String query, int maxDistance) {
+        Levenshtein lev = new Levenshtein();
+        String key = CatalogIndex.normalize(query);
+        List<int[]> found = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            int best = Integer.MAX_VALUE;
+            for (int v = 0; v < catalog.getVariantCount(i); v++) {
+                best = Math.min(best, (int) lev.distance(catalog.getVariant(i, v), key));
+            }
+            if (best <= maxDistance) {
+                found.add(new int[]{best, i});
+            }
+        }
+        found.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+
+        List<String> entries = new ArrayList<>(found.size());
+        for (int[] candidate : found) {
+            entries.add(describe(catalog.toEntry(candidate[1], candidate[0])));
+        }
+        return entries;
+    }
+
+    /**
+     * Описывает найденные записи для сравнения в тестах.
+     *
+     * @param entries найденные записи
+     * @return ID и расстояние каждой записи
+     */
+    static List<String> describe(List<ItemHelperEntry> entries) {
+        return entries.stream().map(TestCatalogs::describe).toList();
+    }
+
+    private static String describe(ItemHelperEntry entry) {
+        return entry.getId() + ":" + entry.getNameDistance();
+    }
+
+    private static String name(Random random, int syllables) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            if (i > 0 && random.nextInt(3) == 0) {
+                builder.append(' ');
+            }
+            builder.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        if (!builder.isEmpty() && random.nextBoolean()) {
+            builder.setCharAt(0, Character.toUpperCase(builder.charAt(0)));
+        }
+        return builder.toString();
+    }
+}